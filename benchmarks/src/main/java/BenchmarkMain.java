@@ -0,0 +1,22 @@
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the JMH benchmarks with the GC profiler attached, so every result includes the bytes
+ * allocated per operation (gc.alloc.rate.norm) alongside its time.
+ *
+ * <p>Accepts the usual JMH command line options, e.g. {@code java -jar
+ * benchmarks/target/benchmarks-jar-with-dependencies.jar GameBenchmark -p position=ENDGAME}.
+ */
+public class BenchmarkMain {
+  public static void main(String[] args) throws Exception {
+    var options =
+        new OptionsBuilder()
+            .parent(new CommandLineOptions(args))
+            .addProfiler(GCProfiler.class)
+            .build();
+    new Runner(options).run();
+  }
+}
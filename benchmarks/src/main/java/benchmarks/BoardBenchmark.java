@@ -0,0 +1,45 @@
+package benchmarks;
+
+import chess.ChessBoard;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/** Measures copying, comparing and hashing a {@link ChessBoard}. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BoardBenchmark {
+  @Param public Position position;
+
+  private ChessBoard board;
+  private ChessBoard copy;
+
+  @Setup
+  public void setup() {
+    board = position.game().getBoard();
+    copy = new ChessBoard(board);
+  }
+
+  @Benchmark
+  public ChessBoard copy() {
+    return new ChessBoard(board);
+  }
+
+  @Benchmark
+  public boolean equalsCopy() {
+    return board.equals(copy);
+  }
+
+  @Benchmark
+  public int hashCodeBoard() {
+    return board.hashCode();
+  }
+
+  @Benchmark
+  public long zobristKey() {
+    return board.zobristKey();
+  }
+}
@@ -0,0 +1,98 @@
+package benchmarks;
+
+import chess.*;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures move validation, making moves and the end-of-move status checks on {@link ChessGame}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameBenchmark {
+  @Param public Position position;
+
+  private ChessGame game;
+  private ChessGame.TeamColor team;
+  private List<ChessPosition> pieces;
+  private ChessMove move;
+
+  @Setup
+  public void setup() {
+    game = position.game();
+    team = game.getTeamTurn();
+    pieces = new ArrayList<>();
+    for (int row = 1; row <= 8; row++) {
+      for (int col = 1; col <= 8; col++) {
+        var piece = game.getBoard().getPiece(ChessPosition.of(row, col));
+        if (piece != null && piece.getTeamColor() == team) pieces.add(ChessPosition.of(row, col));
+      }
+    }
+    move = game.legalMoves().iterator().next();
+  }
+
+  /** Asks for the valid moves of every piece of the team to move, as the client does. */
+  @Benchmark
+  public void validMoves(Blackhole blackhole) {
+    for (var piece : pieces) blackhole.consume(game.validMoves(piece));
+  }
+
+  @Benchmark
+  public Collection<ChessMove> legalMoves() {
+    return game.legalMoves();
+  }
+
+  /** The cost of copying the game, which {@link #makeMove} includes. */
+  @Benchmark
+  public ChessGame copyGame() {
+    return new ChessGame(game.getBoard(), team);
+  }
+
+  /** Validates and makes a move on a copy of the game, as the server does for each request. */
+  @Benchmark
+  public ChessGame makeMove() throws InvalidMoveException {
+    var copy = new ChessGame(game.getBoard(), team);
+    copy.makeMove(move);
+    return copy;
+  }
+
+  @Benchmark
+  public ChessGame makeAndUnmakeMove() {
+    var undo = game.makeMoveUnchecked(move);
+    game.unmakeMove(undo);
+    return game;
+  }
+
+  @Benchmark
+  public boolean isInCheck() {
+    return game.isInCheck(team);
+  }
+
+  @Benchmark
+  public boolean isInCheckmate() {
+    return game.isInCheckmate(team);
+  }
+
+  @Benchmark
+  public boolean isInStalemate() {
+    return game.isInStalemate(team);
+  }
+
+  @Benchmark
+  public ChessGame.GameStatus status() {
+    return game.status();
+  }
+
+  @Benchmark
+  public long perftDepthThree() {
+    return Perft.perft(game, 3);
+  }
+}
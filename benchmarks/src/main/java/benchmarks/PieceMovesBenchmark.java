@@ -0,0 +1,39 @@
+package benchmarks;
+
+import chess.*;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+
+/** Measures {@link ChessPiece#pieceMoves} for one piece of each type in each position. */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PieceMovesBenchmark {
+  @Param public Position position;
+
+  @Param public ChessPiece.PieceType type;
+
+  private ChessBoard board;
+  private ChessPiece piece;
+  private ChessPosition square;
+
+  @Setup
+  public void setup() {
+    var game = position.game();
+    board = game.getBoard();
+    piece = ChessPiece.of(game.getTeamTurn(), type);
+    square = board.findPiece(piece);
+    if (square == null) {
+      throw new IllegalStateException(String.format("No %s in the %s position", piece, position));
+    }
+  }
+
+  @Benchmark
+  public Collection<ChessMove> pieceMoves() {
+    return piece.pieceMoves(board, square);
+  }
+}
@@ -0,0 +1,24 @@
+package benchmarks;
+
+import chess.ChessGame;
+
+/** The positions every benchmark is run on, given as FEN records. */
+public enum Position {
+  OPENING("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w"),
+  MIDDLEGAME("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w"),
+  // White keeps one piece of every type so that pieceMoves can be measured for each.
+  ENDGAME("r5k1/5ppp/2n1b3/8/3N4/1B3Q2/5PPP/2R3K1 w");
+
+  private final String fen;
+
+  Position(String fen) {
+    this.fen = fen;
+  }
+
+  /**
+   * @return A new game in this position
+   */
+  public ChessGame game() {
+    return ChessGame.fromFen(fen);
+  }
+}
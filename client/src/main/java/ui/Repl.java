@@ -2,6 +2,7 @@ package ui;
 
 import chess.*;
 import com.google.gson.Gson;
+import java.nio.ByteBuffer;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.Map;
@@ -17,7 +18,7 @@ public class Repl {
   private Scanner scanner;
 
   public Repl(String serverUrl) {
-    this.serverFacade = new ServerFacade(serverUrl, this::onMessage);
+    this.serverFacade = new ServerFacade(serverUrl, this::onMessage, this::onBinaryMessage, true);
     this.scanner = new Scanner(System.in);
   }
 
@@ -44,6 +45,53 @@ public class Repl {
           System.out.println(notification.getMessage());
           break;
         }
+      case MOVE_MADE:
+        {
+          var moveMade = gson.fromJson(message, MoveMade.class);
+          if (applyMove(moveMade)) printGameData();
+          break;
+        }
+    }
+    System.out.print("> ");
+  }
+
+  // Applies a move to our copy of the game. If our copy is not at the ply just
+  // before the move, or the move does not fit it, asks for the whole game
+  // instead, which arrives as a LoadGame.
+  private boolean applyMove(MoveMade moveMade) {
+    var game = gameData == null ? null : gameData.getGame();
+    if (game != null
+        && gameData.getGameId() == moveMade.getGameId()
+        && moveMade.getSequence() == game.getPly() + 1) {
+      try {
+        game.makeMove(moveMade.getMove());
+        return true;
+      } catch (InvalidMoveException e) {
+        // Out of step, so fall through and ask for the whole game.
+      }
+    }
+    try {
+      serverFacade.refreshGame(authData.getAuthToken(), moveMade.getGameId());
+    } catch (Exception e) {
+      System.err.println("Failed to refresh game: " + e.getMessage());
+    }
+    return false;
+  }
+
+  // Games arrive as binary frames holding only the game, so keep the players
+  // and name from when the game was joined where possible.
+  public void onBinaryMessage(ByteBuffer message) {
+    System.out.println("");
+    try {
+      var load = BinaryLoadGame.decode(message);
+      if (gameData != null && gameData.getGameId() == load.getGameData().getGameId()) {
+        gameData.setGame(load.getGameData().getGame());
+      } else {
+        gameData = load.getGameData();
+      }
+      printGameData();
+    } catch (IllegalArgumentException e) {
+      System.err.println("Received an invalid game: " + e.getMessage());
     }
     System.out.print("> ");
   }
@@ -240,7 +288,7 @@ public class Repl {
     var position = scanner.nextLine();
     var row = Integer.parseInt(position.split(",")[0]);
     var col = Integer.parseInt(position.split(",")[1]);
-    return new ChessPosition(row, col);
+    return ChessPosition.of(row, col);
   }
 
   private void highlightLegalMoves() {
@@ -368,7 +416,7 @@ public class Repl {
     for (var col = 1; col <= 8; col++) {
       var rowSymbol = EscapeSequences.RESET_BG_COLOR + " " + row + " ";
       if (col == 1) builder.append(rowSymbol);
-      var position = new ChessPosition(row, col);
+      var position = ChessPosition.of(row, col);
       var piece = chessGame.getBoard().getPiece(position);
       var symbol = "";
       if (highlightPositions.contains(position)) {
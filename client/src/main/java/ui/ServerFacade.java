@@ -4,9 +4,13 @@ import chess.ChessMove;
 import com.google.gson.Gson;
 import java.io.*;
 import java.net.*;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.function.Consumer;
 import javax.websocket.*;
 import model.*;
+import webSocketMessages.serverMessages.BinaryLoadGame;
+import webSocketMessages.serverMessages.MoveMade;
 import webSocketMessages.userCommands.*;
 
 public class ServerFacade extends Endpoint {
@@ -14,15 +18,41 @@ public class ServerFacade extends Endpoint {
   private final String serverUrl;
   private Session session;
   private final Consumer<String> onMessage;
+  private final Consumer<ByteBuffer> onBinaryMessage;
+  private final boolean moveUpdates;
 
   public ServerFacade(String serverUrl) {
-    this.serverUrl = serverUrl;
-    this.onMessage = null;
+    this(serverUrl, null, null);
   }
 
   public ServerFacade(String serverUrl, Consumer<String> onMessage) {
+    this(serverUrl, onMessage, null);
+  }
+
+  /**
+   * @param onBinaryMessage if not null, games are requested as binary frames (see {@link
+   *     BinaryLoadGame}) and passed to this handler instead of as JSON messages
+   */
+  public ServerFacade(
+      String serverUrl, Consumer<String> onMessage, Consumer<ByteBuffer> onBinaryMessage) {
+    this(serverUrl, onMessage, onBinaryMessage, false);
+  }
+
+  /**
+   * @param onBinaryMessage if not null, games are requested as binary frames (see {@link
+   *     BinaryLoadGame}) and passed to this handler instead of as JSON messages
+   * @param moveUpdates if true, each move is sent as a {@link MoveMade} message instead of the
+   *     whole game, and {@code onMessage} must apply it (or call {@link #refreshGame})
+   */
+  public ServerFacade(
+      String serverUrl,
+      Consumer<String> onMessage,
+      Consumer<ByteBuffer> onBinaryMessage,
+      boolean moveUpdates) {
     this.serverUrl = serverUrl;
     this.onMessage = onMessage;
+    this.onBinaryMessage = onBinaryMessage;
+    this.moveUpdates = moveUpdates;
   }
 
   public String getServerUrl() {
@@ -78,8 +108,18 @@ public class ServerFacade extends Endpoint {
     this.send(new MakeMove(authToken, gameID, move));
   }
 
+  // Asks for the whole game again, e.g. when a move arrives out of sequence.
+  public void refreshGame(String authToken, int gameID) throws Exception {
+    this.send(new Refresh(authToken, gameID));
+  }
+
   private void connect() throws Exception {
-    var uri = new URI(serverUrl.replace("http:", "ws:") + "/connect");
+    var url = serverUrl.replace("http:", "ws:") + "/connect";
+    var query = new ArrayList<String>();
+    if (onBinaryMessage != null) query.add("format=" + BinaryLoadGame.FORMAT);
+    if (moveUpdates) query.add(MoveMade.PARAMETER + "=" + MoveMade.DELTA);
+    if (!query.isEmpty()) url += "?" + String.join("&", query);
+    var uri = new URI(url);
     System.out.println("Connecting to " + uri);
     var container = ContainerProvider.getWebSocketContainer();
     session = container.connectToServer(this, uri);
@@ -89,6 +129,14 @@ public class ServerFacade extends Endpoint {
             if (onMessage != null) onMessage.accept(message);
           }
         });
+    if (onBinaryMessage != null) {
+      session.addMessageHandler(
+          new MessageHandler.Whole<ByteBuffer>() {
+            public void onMessage(ByteBuffer message) {
+              onBinaryMessage.accept(message);
+            }
+          });
+    }
   }
 
   @Override
@@ -6,6 +6,8 @@ public class ServerMain {
   public static void main(String[] args) {
     server = new Server();
     var port = server.run(0);
+    // Write any cached games that have not been saved yet before exiting.
+    Runtime.getRuntime().addShutdownHook(new Thread(server::stop));
     System.out.println("Started server! Visit: http://localhost:" + port);
   }
 }
@@ -0,0 +1,102 @@
+package dataAccess;
+
+import exception.ResponseException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import model.AuthData;
+
+// Caches auth lookups in front of another AuthDataAccess, as nearly every
+// request and WebSocket command looks up its auth token.
+//
+// Found tokens are cached for ttlMillis. Tokens that were not found are
+// cached too, for the much shorter negativeTtlMillis, so that a flood of bad
+// tokens does not turn into a flood of queries. Deleting a token or clearing
+// all tokens removes them from the cache straight away.
+//
+// The cache holds at most maxEntries tokens. Once it is full, expired tokens
+// are swept out, and if that is not enough, arbitrary tokens are dropped
+// until it is 90% full.
+public class CachingAuthDataAccess implements AuthDataAccess {
+  // A cached lookup. `auth` is null for tokens that were not found.
+  private record Entry(AuthData auth, long expiresAt) {}
+
+  private final AuthDataAccess delegate;
+  private final long ttlNanos;
+  private final long negativeTtlNanos;
+  private final int maxEntries;
+  private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+  // Bumped whenever tokens are created or deleted, so that a lookup that
+  // raced with the change does not cache what it read before it.
+  private final AtomicLong version = new AtomicLong();
+
+  public CachingAuthDataAccess(
+      AuthDataAccess delegate, long ttlMillis, long negativeTtlMillis, int maxEntries) {
+    this.delegate = delegate;
+    this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+    this.negativeTtlNanos = TimeUnit.MILLISECONDS.toNanos(negativeTtlMillis);
+    this.maxEntries = maxEntries;
+  }
+
+  // Clear all auths.
+  public void clear() throws ResponseException {
+    delegate.clear();
+    version.incrementAndGet();
+    entries.clear();
+  }
+
+  // Create a new authorization.
+  public AuthData createAuth(AuthData auth) throws ResponseException {
+    var created = delegate.createAuth(auth);
+    version.incrementAndGet();
+    put(created.getAuthToken(), created);
+    return created;
+  }
+
+  // Retrieve an authorization given an authToken, from the cache if it was
+  // looked up recently.
+  public AuthData getAuth(String authToken) throws ResponseException {
+    if (authToken == null) return delegate.getAuth(null);
+    var entry = entries.get(authToken);
+    if (entry != null && entry.expiresAt() - System.nanoTime() > 0) return entry.auth();
+
+    var before = version.get();
+    var auth = delegate.getAuth(authToken);
+    if (entries.size() >= maxEntries) makeRoom();
+    // The version is checked inside compute(), which excludes the remove()
+    // in deleteAuth(). A delete either bumps the version first, so nothing
+    // is cached, or removes the entry after it is cached.
+    entries.compute(authToken, (token, current) -> version.get() == before ? entry(auth) : current);
+    return auth;
+  }
+
+  // Delete an authorization so that it is no longer valid.
+  public void deleteAuth(String authToken) throws ResponseException {
+    delegate.deleteAuth(authToken);
+    version.incrementAndGet();
+    if (authToken != null) entries.remove(authToken);
+  }
+
+  private void put(String authToken, AuthData auth) {
+    if (entries.size() >= maxEntries) makeRoom();
+    entries.put(authToken, entry(auth));
+  }
+
+  private Entry entry(AuthData auth) {
+    var ttl = auth == null ? negativeTtlNanos : ttlNanos;
+    return new Entry(auth, System.nanoTime() + ttl);
+  }
+
+  // Sweeps out expired tokens, then drops tokens until the cache is 90% full.
+  private void makeRoom() {
+    var now = System.nanoTime();
+    entries.values().removeIf((entry) -> entry.expiresAt() - now <= 0);
+    var iterator = entries.keySet().iterator();
+    while (entries.size() > maxEntries * 9 / 10 && iterator.hasNext()) {
+      iterator.next();
+      iterator.remove();
+    }
+  }
+}
@@ -0,0 +1,297 @@
+package dataAccess;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.GameCodec;
+import exception.ResponseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import model.GameData;
+
+// Keeps recently used games in memory in front of another GameDataAccess, so
+// that loading a game and making a move do not wait on the database.
+//
+// Reads are served from the cache once a game has been loaded. Updates and
+// moves only change the cached game and queue a write; a background flusher
+// passes each game's queued writes to the underlying store, in order, every
+// flushIntervalMillis. Each move is passed on with appendMove(), so a store
+// that logs moves (see SQLMoveLogGameDataAccess) only inserts the moves
+// rather than rewriting the game. Several updates in a row are written as
+// just the latest one, with one updateGame(). Creating and clearing games go
+// straight through, as creating a game needs its ID from the store.
+//
+// Games are cached as encoded snapshots (see GameCodec), and every read
+// decodes a fresh copy, because ChessGame is not thread-safe and callers
+// change the games they are given. Clean games beyond maxGames are evicted,
+// least recently used first, each time the flusher runs.
+//
+// close() stops the flusher and writes any dirty games, so it must be called
+// when the server shuts down.
+public class CachingGameDataAccess implements GameDataAccess, AutoCloseable {
+  // The state of a game at one point in time. The game itself is kept encoded
+  // so that the snapshot cannot change once taken.
+  private record Snapshot(
+      int gameID,
+      String whiteUsername,
+      String blackUsername,
+      String gameName,
+      byte[] state,
+      int ply,
+      boolean resigned,
+      long lastUsed) {
+    static Snapshot of(int gameID, GameData game) {
+      var chessGame = game.getGame();
+      return new Snapshot(
+          gameID,
+          game.getWhiteUsername(),
+          game.getBlackUsername(),
+          game.getGameName(),
+          chessGame == null ? null : GameCodec.encode(chessGame),
+          chessGame == null ? 0 : chessGame.getPly(),
+          chessGame != null && chessGame.getResigned() != null,
+          System.nanoTime());
+    }
+
+    // Whether this game has moved on from the given one: more moves have
+    // been made, or it has been resigned since. Games only ever move on.
+    boolean isAheadOf(Snapshot other) {
+      return ply > other.ply || (ply == other.ply && resigned && !other.resigned);
+    }
+
+    // Takes the players and name of an update, keeping this game.
+    Snapshot withPlayers(Snapshot update) {
+      return new Snapshot(
+          gameID,
+          update.whiteUsername,
+          update.blackUsername,
+          update.gameName,
+          state,
+          ply,
+          resigned,
+          update.lastUsed);
+    }
+
+    GameData toGameData() {
+      ChessGame game = null;
+      if (state != null) {
+        game = GameCodec.decode(state);
+        game.setPly(ply);
+      }
+      return new GameData(gameID, whiteUsername, blackUsername, gameName, game);
+    }
+  }
+
+  // A change that has not been written to the store yet: a move, or an update
+  // when move is null.
+  private record PendingWrite(Snapshot snapshot, ChessMove move) {}
+
+  private final GameDataAccess delegate;
+  private final int maxGames;
+  private final Map<Integer, Snapshot> games = new ConcurrentHashMap<>();
+  // Each dirty game's writes, oldest first. A list is only changed inside
+  // compute() for its game. A write stays in its list until it has been
+  // written, so the first one may be being written at any time.
+  private final Map<Integer, List<PendingWrite>> pending = new ConcurrentHashMap<>();
+  // Held while flushing and clearing, so that a write taken from the queue
+  // cannot reach the store after the store has been cleared.
+  private final Object flushLock = new Object();
+  private final ScheduledExecutorService flusher;
+
+  public CachingGameDataAccess(GameDataAccess delegate, long flushIntervalMillis, int maxGames) {
+    this.delegate = delegate;
+    this.maxGames = maxGames;
+    flusher =
+        Executors.newSingleThreadScheduledExecutor(
+            (runnable) -> {
+              var thread = new Thread(runnable, "game-cache-flusher");
+              thread.setDaemon(true);
+              return thread;
+            });
+    flusher.scheduleWithFixedDelay(
+        () -> {
+          flush();
+          evict();
+        },
+        flushIntervalMillis,
+        flushIntervalMillis,
+        TimeUnit.MILLISECONDS);
+  }
+
+  // Clears all games, including any that have not been written yet.
+  // Waits for a flush in progress to finish first.
+  public void clear() throws ResponseException {
+    synchronized (flushLock) {
+      pending.clear();
+      games.clear();
+      delegate.clear();
+    }
+  }
+
+  // Create a new game. Games are written straight away, as the store assigns
+  // their IDs.
+  public GameData createGame(GameData game) throws ResponseException {
+    var created = delegate.createGame(game);
+    games.put(created.getGameId(), Snapshot.of(created.getGameId(), created));
+    return created;
+  }
+
+  // Retrieve a specified game with the given game ID, loading it into the
+  // cache if needed.
+  public GameData getGame(int gameID) throws ResponseException {
+    var snapshot = games.get(gameID);
+    if (snapshot == null) {
+      var loaded = delegate.getGame(gameID);
+      if (loaded == null) return null;
+      // A game updated while it was being loaded keeps the newer update.
+      snapshot = games.putIfAbsent(gameID, Snapshot.of(gameID, loaded));
+      if (snapshot == null) return loaded;
+    }
+    games.computeIfPresent(gameID, (id, current) -> touch(current));
+    return snapshot.toGameData();
+  }
+
+  // Retrieve all games, with the cached state of any game that has not been
+  // written yet.
+  public Collection<GameData> listGames() throws ResponseException {
+    var result = new ArrayList<GameData>();
+    for (var game : delegate.listGames()) {
+      var snapshot = pending.containsKey(game.getGameId()) ? games.get(game.getGameId()) : null;
+      result.add(snapshot == null ? game : snapshot.toGameData());
+    }
+    return result;
+  }
+
+  // Updates a chess game in the cache. It is written to the store by the next
+  // flush. Updates can be made outside the game's executor (e.g. joining over
+  // HTTP) from a copy read before a move that has since been made. Such an
+  // update only changes the players and name, and keeps the newer game.
+  public GameData updateGame(int gameID, GameData game) throws ResponseException {
+    queue(gameID, game, null);
+    return game;
+  }
+
+  // Records a move in the cache. It is passed on to the store's appendMove()
+  // by the next flush.
+  public GameData appendMove(int gameID, GameData game, ChessMove move) throws ResponseException {
+    queue(gameID, game, move);
+    return game;
+  }
+
+  // Writes every dirty game's queued changes to the store. Each write is
+  // only taken off the queue once it has succeeded, so listGames() sees the
+  // cached game until then. If a write fails, it and the writes after it stay
+  // queued and are tried again by the next flush.
+  public void flush() {
+    synchronized (flushLock) {
+      for (var gameID : pending.keySet()) {
+        PendingWrite write;
+        while ((write = nextWrite(gameID)) != null) {
+          var written = write;
+          try {
+            var game = write.snapshot().toGameData();
+            if (write.move() == null) {
+              delegate.updateGame(gameID, game);
+            } else {
+              delegate.appendMove(gameID, game, write.move());
+            }
+          } catch (Exception e) {
+            System.err.println("Failed to write game " + gameID + ": " + e.getMessage());
+            break;
+          }
+          pending.computeIfPresent(
+              gameID,
+              (id, writes) -> {
+                // An update may have replaced it while it was being written.
+                if (writes.getFirst() == written) writes.removeFirst();
+                return writes.isEmpty() ? null : writes;
+              });
+        }
+      }
+    }
+  }
+
+  // Stops the flusher and writes any games that have not been written yet.
+  @Override
+  public void close() {
+    flusher.shutdown();
+    try {
+      flusher.awaitTermination(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+    flush();
+  }
+
+  // Caches a game and queues it to be written. Both happen inside compute()
+  // for the game, so that the cache and the queue agree on the order of
+  // changes made by different threads.
+  private void queue(int gameID, GameData game, ChessMove move) {
+    var update = Snapshot.of(gameID, game);
+    games.compute(
+        gameID,
+        (id, current) -> {
+          var snapshot =
+              move == null && current != null && current.isAheadOf(update)
+                  ? current.withPlayers(update)
+                  : update;
+          pending.compute(
+              gameID,
+              (key, writes) -> {
+                if (writes == null) writes = new ArrayList<>();
+                // An update replaces one queued just before it, as only the
+                // latest state needs writing. If the one replaced is being
+                // written, flush() writes this one after it.
+                if (move == null && !writes.isEmpty() && writes.getLast().move() == null) {
+                  writes.removeLast();
+                }
+                writes.add(new PendingWrite(snapshot, move));
+                return writes;
+              });
+          return snapshot;
+        });
+  }
+
+  // The oldest write queued for a game, or null if there are none.
+  private PendingWrite nextWrite(int gameID) {
+    var next = new AtomicReference<PendingWrite>();
+    pending.computeIfPresent(
+        gameID,
+        (id, writes) -> {
+          next.set(writes.getFirst());
+          return writes;
+        });
+    return next.get();
+  }
+
+  // Evicts the least recently used clean games once there are more than
+  // maxGames.
+  private void evict() {
+    var excess = games.size() - maxGames;
+    if (excess <= 0) return;
+    games.values().stream()
+        .filter((snapshot) -> !pending.containsKey(snapshot.gameID()))
+        .sorted(Comparator.comparingLong(Snapshot::lastUsed))
+        .limit(excess)
+        .forEach((snapshot) -> games.remove(snapshot.gameID(), snapshot));
+  }
+
+  private static Snapshot touch(Snapshot snapshot) {
+    return new Snapshot(
+        snapshot.gameID(),
+        snapshot.whiteUsername(),
+        snapshot.blackUsername(),
+        snapshot.gameName(),
+        snapshot.state(),
+        snapshot.ply(),
+        snapshot.resigned(),
+        System.nanoTime());
+  }
+}
@@ -0,0 +1,332 @@
+package dataAccess;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bounded pool of database connections, so that each query reuses an open connection instead of
+ * paying for a new TCP connection and MySQL handshake.
+ *
+ * <p>Callers use connections exactly as before: {@link #getConnection} hands out a wrapper whose
+ * {@link Connection#close} returns the connection to the pool instead of closing it. At most {@code
+ * maxSize} connections are open at once; callers beyond that wait up to {@code acquireTimeout} for
+ * one to be returned. Connections that have sat idle for a while are checked with {@link
+ * Connection#isValid} before being handed out, and connections idle for longer than {@code
+ * idleTimeout} are closed by a background sweeper.
+ *
+ * <p>Each physical connection keeps its own {@link StatementCache} of up to {@code
+ * statementCacheSize} prepared statements, so {@link Connection#prepareStatement} on a pooled
+ * connection reuses a statement that was prepared for the same SQL earlier. New connections prepare
+ * every {@link NamedStatement} up front.
+ */
+public class ConnectionPool implements AutoCloseable {
+  /** Opens a new physical connection to the database. */
+  @FunctionalInterface
+  public interface ConnectionFactory {
+    Connection create() throws SQLException;
+  }
+
+  /** A point-in-time view of the pool's state and lifetime counters. */
+  public record Metrics(
+      int maxSize,
+      int open,
+      int idle,
+      int active,
+      int waiting,
+      long created,
+      long destroyed,
+      long acquired,
+      long timeouts,
+      long totalAcquireNanos) {
+    /**
+     * @return The mean time callers waited for a connection, in milliseconds
+     */
+    public double meanAcquireMillis() {
+      return acquired == 0 ? 0 : totalAcquireNanos / 1e6 / acquired;
+    }
+  }
+
+  // A physical connection and the statements prepared on it.
+  private record PooledConnection(Connection connection, StatementCache statements) {}
+
+  private record IdleConnection(PooledConnection connection, long idleSince) {}
+
+  private final ConnectionFactory factory;
+  private final int maxSize;
+  private final long acquireTimeoutMillis;
+  private final long idleTimeoutMillis;
+  private final long validationIntervalMillis;
+  private final int validationTimeoutSeconds;
+  private final int statementCacheSize;
+
+  // Permits bound the number of connections that are checked out or being
+  // opened. Idle connections hold no permit.
+  private final Semaphore permits;
+  // Most recently returned connections are reused first, so that rarely
+  // needed extras go idle and get evicted.
+  private final ArrayDeque<IdleConnection> idle = new ArrayDeque<>();
+  private final ScheduledExecutorService sweeper;
+  private volatile boolean closed = false;
+
+  private final AtomicLong created = new AtomicLong();
+  private final AtomicLong destroyed = new AtomicLong();
+  private final AtomicLong acquired = new AtomicLong();
+  private final AtomicLong timeouts = new AtomicLong();
+  private final AtomicLong totalAcquireNanos = new AtomicLong();
+
+  /**
+   * @param factory opens new connections
+   * @param maxSize the most connections that can be open at once
+   * @param acquireTimeoutMillis how long to wait for a connection when all are in use
+   * @param idleTimeoutMillis how long a connection can sit unused before it is closed
+   * @param validationIntervalMillis how long a connection can sit unused before it is validated
+   *     again when checked out
+   * @param validationTimeoutSeconds how long to wait for a connection to answer validation
+   * @param statementCacheSize the most prepared statements to keep open per connection, or 0 to
+   *     disable statement caching
+   */
+  public ConnectionPool(
+      ConnectionFactory factory,
+      int maxSize,
+      long acquireTimeoutMillis,
+      long idleTimeoutMillis,
+      long validationIntervalMillis,
+      int validationTimeoutSeconds,
+      int statementCacheSize) {
+    if (maxSize < 1) throw new IllegalArgumentException("Pool size must be at least 1");
+    this.factory = factory;
+    this.maxSize = maxSize;
+    this.acquireTimeoutMillis = acquireTimeoutMillis;
+    this.idleTimeoutMillis = idleTimeoutMillis;
+    this.validationIntervalMillis = validationIntervalMillis;
+    this.validationTimeoutSeconds = validationTimeoutSeconds;
+    this.statementCacheSize = statementCacheSize;
+    this.permits = new Semaphore(maxSize, true);
+
+    long sweepMillis = Math.max(1000, idleTimeoutMillis / 2);
+    sweeper =
+        Executors.newSingleThreadScheduledExecutor(
+            (runnable) -> {
+              var thread = new Thread(runnable, "connection-pool-sweeper");
+              thread.setDaemon(true);
+              return thread;
+            });
+    sweeper.scheduleWithFixedDelay(
+        this::evictIdle, sweepMillis, sweepMillis, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Checks out a connection, waiting for one to be returned if they are all in use. Closing the
+   * returned connection gives it back to the pool.
+   *
+   * @return A pooled connection
+   * @throws DataAccessException if no connection became available in time, or a new one could not
+   *     be opened
+   */
+  public Connection getConnection() throws DataAccessException {
+    if (closed) throw new DataAccessException("The connection pool is closed");
+    long start = System.nanoTime();
+    try {
+      if (!permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS)) {
+        timeouts.incrementAndGet();
+        throw new DataAccessException(
+            String.format(
+                "Timed out after %d ms waiting for a database connection (%d in use)",
+                acquireTimeoutMillis, maxSize));
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new DataAccessException("Interrupted waiting for a database connection");
+    }
+
+    try {
+      var connection = takeIdle();
+      if (connection == null) {
+        var physical = factory.create();
+        connection =
+            new PooledConnection(physical, new StatementCache(physical, statementCacheSize));
+        created.incrementAndGet();
+        if (statementCacheSize > 0) connection.statements().warm();
+      }
+      acquired.incrementAndGet();
+      totalAcquireNanos.addAndGet(System.nanoTime() - start);
+      return wrap(connection);
+    } catch (SQLException | RuntimeException e) {
+      permits.release();
+      throw new DataAccessException(e.getMessage());
+    }
+  }
+
+  /**
+   * @return The current state of the pool
+   */
+  public Metrics getMetrics() {
+    int idleCount;
+    synchronized (idle) {
+      idleCount = idle.size();
+    }
+    int active = maxSize - permits.availablePermits();
+    return new Metrics(
+        maxSize,
+        idleCount + active,
+        idleCount,
+        active,
+        permits.getQueueLength(),
+        created.get(),
+        destroyed.get(),
+        acquired.get(),
+        timeouts.get(),
+        totalAcquireNanos.get());
+  }
+
+  /** Closes every idle connection and stops handing out new ones. */
+  @Override
+  public void close() {
+    closed = true;
+    sweeper.shutdownNow();
+    synchronized (idle) {
+      while (!idle.isEmpty()) destroy(idle.pop().connection());
+    }
+  }
+
+  // Takes the most recently used idle connection that is still usable,
+  // closing any that have expired or fail validation.
+  private PooledConnection takeIdle() {
+    while (true) {
+      IdleConnection entry;
+      synchronized (idle) {
+        entry = idle.pollFirst();
+      }
+      if (entry == null) return null;
+      long idleMillis = System.currentTimeMillis() - entry.idleSince();
+      if (idleMillis >= idleTimeoutMillis) {
+        destroy(entry.connection());
+      } else if (idleMillis >= validationIntervalMillis
+          && !isValid(entry.connection().connection())) {
+        destroy(entry.connection());
+      } else {
+        return entry.connection();
+      }
+    }
+  }
+
+  // Returns a checked out connection to the pool, or closes it if it can no
+  // longer be used.
+  private void release(PooledConnection pooled) {
+    var connection = pooled.connection();
+    try {
+      if (closed || connection.isClosed()) {
+        destroy(pooled);
+        return;
+      }
+      if (!connection.getAutoCommit()) {
+        connection.rollback();
+        connection.setAutoCommit(true);
+      }
+      connection.clearWarnings();
+      synchronized (idle) {
+        idle.addFirst(new IdleConnection(pooled, System.currentTimeMillis()));
+      }
+    } catch (SQLException e) {
+      destroy(pooled);
+    } finally {
+      permits.release();
+    }
+  }
+
+  // Closes idle connections that have not been used for idleTimeoutMillis.
+  // The oldest connections are at the end of the queue.
+  private void evictIdle() {
+    long cutoff = System.currentTimeMillis() - idleTimeoutMillis;
+    while (true) {
+      IdleConnection entry;
+      synchronized (idle) {
+        entry = idle.peekLast();
+        if (entry == null || entry.idleSince() > cutoff) return;
+        idle.pollLast();
+      }
+      destroy(entry.connection());
+    }
+  }
+
+  private boolean isValid(Connection connection) {
+    try {
+      return connection.isValid(validationTimeoutSeconds);
+    } catch (SQLException e) {
+      return false;
+    }
+  }
+
+  private void destroy(PooledConnection pooled) {
+    destroyed.incrementAndGet();
+    pooled.statements().close();
+    try {
+      pooled.connection().close();
+    } catch (SQLException e) {
+      System.err.println("Failed to close database connection: " + e.getMessage());
+    }
+  }
+
+  // Wraps a connection so that closing it returns it to the pool, and
+  // preparing a statement goes through its statement cache. Closing the
+  // wrapper more than once has no further effect, and it cannot be used once
+  // closed.
+  private Connection wrap(PooledConnection pooled) {
+    var connection = pooled.connection();
+    InvocationHandler handler =
+        new InvocationHandler() {
+          private boolean returned = false;
+
+          @Override
+          public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+              case "close":
+                if (!returned) {
+                  returned = true;
+                  release(pooled);
+                }
+                return null;
+              case "prepareStatement":
+                if (returned) throw new SQLException("Connection has been returned to the pool");
+                if (statementCacheSize > 0 && args.length == 1) {
+                  return pooled
+                      .statements()
+                      .prepare((String) args[0], Statement.NO_GENERATED_KEYS, (Connection) proxy);
+                }
+                if (statementCacheSize > 0 && args.length == 2 && args[1] instanceof Integer keys) {
+                  return pooled.statements().prepare((String) args[0], keys, (Connection) proxy);
+                }
+                break;
+              case "isClosed":
+                return returned || connection.isClosed();
+              case "equals":
+                return proxy == args[0];
+              case "hashCode":
+                return System.identityHashCode(proxy);
+              case "toString":
+                return "Pooled " + connection;
+            }
+            if (returned) throw new SQLException("Connection has been returned to the pool");
+            try {
+              return method.invoke(connection, args);
+            } catch (InvocationTargetException e) {
+              throw e.getCause();
+            }
+          }
+        };
+    return (Connection)
+        Proxy.newProxyInstance(
+            Connection.class.getClassLoader(), new Class<?>[] {Connection.class}, handler);
+  }
+}
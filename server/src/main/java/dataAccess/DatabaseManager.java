@@ -8,6 +8,7 @@ public class DatabaseManager {
   private static final String user;
   private static final String password;
   private static final String connectionUrl;
+  private static final ConnectionPool pool;
 
   /*
    * Load the database information for the db.properties file.
@@ -25,7 +26,22 @@ public class DatabaseManager {
 
         var host = props.getProperty("db.host");
         var port = Integer.parseInt(props.getProperty("db.port"));
-        connectionUrl = String.format("jdbc:mysql://%s:%d", host, port);
+        // Server-side prepared statements are parsed and planned once per
+        // connection, and then reused through each connection's statement
+        // cache (see StatementCache).
+        var serverPrepare = props.getProperty("db.serverPrepareStatements", "true");
+        connectionUrl =
+            String.format("jdbc:mysql://%s:%d?useServerPrepStmts=%s", host, port, serverPrepare);
+
+        pool =
+            new ConnectionPool(
+                DatabaseManager::openConnection,
+                Integer.parseInt(props.getProperty("db.pool.size", "10")),
+                Long.parseLong(props.getProperty("db.pool.acquireTimeoutMillis", "5000")),
+                Long.parseLong(props.getProperty("db.pool.idleTimeoutMillis", "600000")),
+                Long.parseLong(props.getProperty("db.pool.validationIntervalMillis", "5000")),
+                Integer.parseInt(props.getProperty("db.pool.validationTimeoutSeconds", "2")),
+                Integer.parseInt(props.getProperty("db.pool.statementCacheSize", "32")));
       }
     } catch (Exception ex) {
       throw new RuntimeException("unable to process db.properties. " + ex.getMessage());
@@ -36,9 +52,10 @@ public class DatabaseManager {
   public static void createDatabase() throws DataAccessException {
     try {
       var statement = "CREATE DATABASE IF NOT EXISTS " + databaseName;
-      var conn = DriverManager.getConnection(connectionUrl, user, password);
-      try (var preparedStatement = conn.prepareStatement(statement)) {
-        preparedStatement.executeUpdate();
+      try (var conn = DriverManager.getConnection(connectionUrl, user, password)) {
+        try (var preparedStatement = conn.prepareStatement(statement)) {
+          preparedStatement.executeUpdate();
+        }
       }
     } catch (SQLException e) {
       throw new DataAccessException(e.getMessage());
@@ -46,10 +63,10 @@ public class DatabaseManager {
   }
 
   /**
-   * Create a connection to the database and sets the catalog based upon the properties specified in
-   * db.properties. Connections to the database should be short-lived, and you must close the
-   * connection when you are done with it. The easiest way to do that is with a try-with-resource
-   * block. <br>
+   * Gets a connection to the database from the connection pool, with the catalog set based upon the
+   * properties specified in db.properties. Connections to the database should be short-lived, and
+   * you must close the connection when you are done with it, which returns it to the pool. The
+   * easiest way to do that is with a try-with-resource block. <br>
    * <code>
    * try (var conn = DbInfo.getConnection(databaseName)) {
    * // execute SQL statements.
@@ -57,12 +74,20 @@ public class DatabaseManager {
    * </code>
    */
   public static Connection getConnection() throws DataAccessException {
-    try {
-      var conn = DriverManager.getConnection(connectionUrl, user, password);
-      conn.setCatalog(databaseName);
-      return conn;
-    } catch (SQLException e) {
-      throw new DataAccessException(e.getMessage());
-    }
+    return pool.getConnection();
+  }
+
+  /**
+   * @return The current state of the connection pool
+   */
+  public static ConnectionPool.Metrics getPoolMetrics() {
+    return pool.getMetrics();
+  }
+
+  /** Opens a new physical connection for the pool. */
+  private static Connection openConnection() throws SQLException {
+    var conn = DriverManager.getConnection(connectionUrl, user, password);
+    conn.setCatalog(databaseName);
+    return conn;
   }
 }
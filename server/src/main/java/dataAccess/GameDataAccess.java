@@ -1,5 +1,6 @@
 package dataAccess;
 
+import chess.ChessMove;
 import exception.ResponseException;
 import java.util.Collection;
 import model.GameData;
@@ -18,4 +19,11 @@ public interface GameDataAccess extends DataAccess {
   // to a given gameID. This is used when players join a game or when a move is
   // made.
   public GameData updateGame(int gameID, GameData game) throws ResponseException;
+
+  // Records a move that has just been made on the given game. Implementations
+  // that log moves can store just the move instead of the whole game.
+  public default GameData appendMove(int gameID, GameData game, ChessMove move)
+      throws ResponseException {
+    return updateGame(gameID, game);
+  }
 }
@@ -1,11 +1,11 @@
 package dataAccess;
 
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import model.UserData;
 
 public class MemoryUserDataAccess implements UserDataAccess {
-  private Map<String, UserData> users = new HashMap<String, UserData>();
+  private Map<String, UserData> users = new ConcurrentHashMap<String, UserData>();
 
   // Clears all users.
   public void clear() {
@@ -22,4 +22,9 @@ public class MemoryUserDataAccess implements UserDataAccess {
   public UserData getUser(String username) {
     return users.get(username);
   }
+
+  // Replace a user's password hash.
+  public void updatePassword(String username, String password) {
+    users.computeIfPresent(username, (name, user) -> new UserData(name, password, user.getEmail()));
+  }
 }
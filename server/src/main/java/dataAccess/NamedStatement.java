@@ -0,0 +1,78 @@
+package dataAccess;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A fixed SQL statement that the data access classes run over and over. Every named statement is
+ * registered when it is declared, so that new pooled connections can prepare them all up front (see
+ * {@link StatementCache}), and only inserts whose generated keys are used ask the driver for them.
+ */
+public final class NamedStatement {
+  private static final List<NamedStatement> registered =
+      Collections.synchronizedList(new ArrayList<>());
+
+  private final String name;
+  private final String sql;
+  private final boolean returnsGeneratedKeys;
+
+  private NamedStatement(String name, String sql, boolean returnsGeneratedKeys) {
+    this.name = name;
+    this.sql = sql;
+    this.returnsGeneratedKeys = returnsGeneratedKeys;
+  }
+
+  /**
+   * Registers a statement that does not need generated keys (a query, update or delete)
+   *
+   * @param name a name for the statement, used in logs
+   * @param sql the statement's SQL
+   * @return The registered statement
+   */
+  public static NamedStatement register(String name, String sql) {
+    return register(new NamedStatement(name, sql, false));
+  }
+
+  /**
+   * Registers an insert whose generated key (e.g. an AUTO_INCREMENT ID) is returned
+   *
+   * @param name a name for the statement, used in logs
+   * @param sql the statement's SQL
+   * @return The registered statement
+   */
+  public static NamedStatement registerInsert(String name, String sql) {
+    return register(new NamedStatement(name, sql, true));
+  }
+
+  private static NamedStatement register(NamedStatement statement) {
+    registered.add(statement);
+    return statement;
+  }
+
+  /**
+   * @return A copy of every statement registered so far
+   */
+  public static List<NamedStatement> all() {
+    synchronized (registered) {
+      return new ArrayList<>(registered);
+    }
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public String getSql() {
+    return sql;
+  }
+
+  public boolean returnsGeneratedKeys() {
+    return returnsGeneratedKeys;
+  }
+
+  @Override
+  public String toString() {
+    return name;
+  }
+}
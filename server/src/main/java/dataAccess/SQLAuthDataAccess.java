@@ -15,28 +15,35 @@ public class SQLAuthDataAccess extends SQLDataAccess implements AuthDataAccess {
     """
   };
 
+  private static final NamedStatement CLEAR =
+      NamedStatement.register("clearAuth", "DELETE FROM auth");
+  private static final NamedStatement CREATE =
+      NamedStatement.register("createAuth", "INSERT INTO auth (username, authToken) VALUES (?, ?)");
+  private static final NamedStatement GET =
+      NamedStatement.register(
+          "getAuth", "SELECT username, authToken FROM auth WHERE authToken = ?");
+  private static final NamedStatement DELETE =
+      NamedStatement.register("deleteAuth", "DELETE FROM auth WHERE authToken = ?");
+
   public SQLAuthDataAccess() throws ResponseException {
     super(createStatements);
   }
 
   // Clear all auths.
   public void clear() throws ResponseException {
-    var statement = "DELETE FROM auth";
-    executeUpdate(statement);
+    executeUpdate(CLEAR);
   }
 
   // Create a new authorization.
   public AuthData createAuth(AuthData auth) throws ResponseException {
-    var statement = "INSERT INTO auth (username, authToken) VALUES (?, ?)";
-    executeUpdate(statement, auth.getUsername(), auth.getAuthToken());
+    executeUpdate(CREATE, auth.getUsername(), auth.getAuthToken());
     return auth;
   }
 
   // Retrieve an authorization given an authToken.
   public AuthData getAuth(String authToken) throws ResponseException {
     try (var conn = DatabaseManager.getConnection()) {
-      var statement = "SELECT username, authToken FROM auth WHERE authToken = ?";
-      try (var ps = conn.prepareStatement(statement)) {
+      try (var ps = conn.prepareStatement(GET.getSql())) {
         ps.setString(1, authToken);
         try (var rs = ps.executeQuery()) {
           if (rs.next()) {
@@ -52,7 +59,6 @@ public class SQLAuthDataAccess extends SQLDataAccess implements AuthDataAccess {
 
   // Delete an authorization so that it is no longer valid.
   public void deleteAuth(String authToken) throws ResponseException {
-    var statement = "DELETE FROM auth WHERE authToken = ?";
-    executeUpdate(statement, authToken);
+    executeUpdate(DELETE, authToken);
   }
 }
@@ -1,5 +1,6 @@
 package dataAccess;
 
+import static java.sql.Statement.NO_GENERATED_KEYS;
 import static java.sql.Statement.RETURN_GENERATED_KEYS;
 import static java.sql.Types.NULL;
 
@@ -11,7 +12,7 @@ abstract class SQLDataAccess {
     configureDatabase(createStatements);
   }
 
-  private void configureDatabase(final String[] createStatements) throws ResponseException {
+  protected void configureDatabase(final String[] createStatements) throws ResponseException {
     System.out.println("Configuring database...");
     try {
       DatabaseManager.createDatabase();
@@ -33,28 +34,67 @@ abstract class SQLDataAccess {
     }
   }
 
-  protected int executeUpdate(String statement, Object... params) throws ResponseException {
+  // Adds a column to a table created before the column existed. MySQL has no
+  // `ADD COLUMN IF NOT EXISTS`, so check the schema first.
+  protected void addColumnIfMissing(String table, String column, String definition)
+      throws ResponseException {
     try (var conn = DatabaseManager.getConnection()) {
-      try (var ps = conn.prepareStatement(statement, RETURN_GENERATED_KEYS)) {
-        for (var i = 0; i < params.length; i++) {
-          var param = params[i];
-          if (param instanceof String p) ps.setString(i + 1, p);
-          else if (param instanceof Integer p) ps.setInt(i + 1, p);
-          else if (param == null) {
-            System.out.println("Setting param (" + (i + 1) + ") to NULL...");
-            ps.setNull(i + 1, NULL);
-          }
+      var statement =
+          "SELECT COUNT(*) FROM information_schema.COLUMNS WHERE TABLE_SCHEMA = DATABASE() AND"
+              + " TABLE_NAME = ? AND COLUMN_NAME = ?";
+      try (var ps = conn.prepareStatement(statement)) {
+        ps.setString(1, table);
+        ps.setString(2, column);
+        try (var rs = ps.executeQuery()) {
+          if (rs.next() && rs.getInt(1) > 0) return;
         }
-        System.out.println("Executing: " + ps.toString());
-        ps.executeUpdate();
+      }
+    } catch (SQLException e) {
+      throw new ResponseException(
+          500, String.format("Unable to configure database: %s", e.getMessage()));
+    } catch (DataAccessException e) {
+      throw new ResponseException(
+          500, String.format("Unable to configure database: %s", e.getMessage()));
+    }
+    executeUpdate(String.format("ALTER TABLE %s ADD COLUMN %s %s", table, column, definition));
+  }
 
-        var rs = ps.getGeneratedKeys();
-        if (rs.next()) {
-          return rs.getInt(1);
-        }
+  // Runs one of the fixed statements. Only inserts registered with
+  // NamedStatement.registerInsert() ask for generated keys, and return the
+  // generated key; everything else returns 0.
+  protected int executeUpdate(NamedStatement statement, Object... params) throws ResponseException {
+    return executeUpdate(statement.getSql(), statement.returnsGeneratedKeys(), params);
+  }
+
+  // Runs one of the fixed statements on a connection the caller holds, e.g.
+  // as part of a transaction.
+  protected int executeUpdate(Connection conn, NamedStatement statement, Object... params)
+      throws SQLException {
+    return executeUpdate(conn, statement.getSql(), statement.returnsGeneratedKeys(), params);
+  }
 
-        return 0;
+  // Runs a one-off statement, such as a schema change.
+  protected int executeUpdate(String statement, Object... params) throws ResponseException {
+    return executeUpdate(statement, false, params);
+  }
+
+  protected static void setParams(PreparedStatement ps, Object... params) throws SQLException {
+    for (var i = 0; i < params.length; i++) {
+      var param = params[i];
+      if (param instanceof String p) ps.setString(i + 1, p);
+      else if (param instanceof Integer p) ps.setInt(i + 1, p);
+      else if (param instanceof byte[] p) ps.setBytes(i + 1, p);
+      else if (param == null) {
+        System.out.println("Setting param (" + (i + 1) + ") to NULL...");
+        ps.setNull(i + 1, NULL);
       }
+    }
+  }
+
+  private int executeUpdate(String statement, boolean generatedKeys, Object... params)
+      throws ResponseException {
+    try (var conn = DatabaseManager.getConnection()) {
+      return executeUpdate(conn, statement, generatedKeys, params);
     } catch (SQLException e) {
       throw new ResponseException(
           500, String.format("unable to update database: %s, %s", statement, e.getMessage()));
@@ -63,4 +103,25 @@ abstract class SQLDataAccess {
           500, String.format("unable to update database: %s, %s", statement, e.getMessage()));
     }
   }
+
+  private static int executeUpdate(
+      Connection conn, String statement, boolean generatedKeys, Object... params)
+      throws SQLException {
+    try (var ps =
+        conn.prepareStatement(
+            statement, generatedKeys ? RETURN_GENERATED_KEYS : NO_GENERATED_KEYS)) {
+      setParams(ps, params);
+      System.out.println("Executing: " + ps.toString());
+      ps.executeUpdate();
+      if (!generatedKeys) return 0;
+
+      try (var rs = ps.getGeneratedKeys()) {
+        if (rs.next()) {
+          return rs.getInt(1);
+        }
+      }
+
+      return 0;
+    }
+  }
 }
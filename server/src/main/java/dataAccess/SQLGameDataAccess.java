@@ -1,6 +1,7 @@
 package dataAccess;
 
 import chess.ChessGame;
+import chess.GameCodec;
 import com.google.gson.Gson;
 import exception.ResponseException;
 import java.sql.*;
@@ -17,6 +18,8 @@ public class SQLGameDataAccess extends SQLDataAccess implements GameDataAccess {
       blackUsername varchar(256) NULL,
       gameName varchar(256) NOT NULL,
       json TEXT NULL,
+      state BLOB NULL,
+      ply int NOT NULL DEFAULT 0,
       PRIMARY KEY (gameID),
       FOREIGN KEY (whiteUsername) REFERENCES user(username),
       FOREIGN KEY (blackUsername) REFERENCES user(username)
@@ -24,27 +27,52 @@ public class SQLGameDataAccess extends SQLDataAccess implements GameDataAccess {
     """
   };
 
+  // Columns are listed rather than selected with `*`, so that cached prepared
+  // statements keep the same result shape when columns are added.
+  private static final String COLUMNS =
+      "gameID, whiteUsername, blackUsername, gameName, json, state, ply";
+
+  private static final NamedStatement CLEAR =
+      NamedStatement.register("clearGames", "DELETE FROM game");
+  private static final NamedStatement CREATE =
+      NamedStatement.registerInsert(
+          "createGame",
+          "INSERT INTO game (whiteUsername, blackUsername, gameName, state, ply) VALUES (?, ?, ?,"
+              + " ?, ?)");
+  private static final NamedStatement UPDATE =
+      NamedStatement.register(
+          "updateGame",
+          "UPDATE game SET whiteUsername = ?, blackUsername = ?, gameName = ?, json = NULL, state ="
+              + " ?, ply = ? WHERE gameID = ?");
+  private static final NamedStatement GET =
+      NamedStatement.register("getGame", "SELECT " + COLUMNS + " FROM game WHERE gameID = ?");
+  private static final NamedStatement LIST =
+      NamedStatement.register("listGames", "SELECT " + COLUMNS + " FROM game");
+
   public SQLGameDataAccess() throws ResponseException {
     super(createStatements);
+    // Games are stored in the compact binary `state` column (see GameCodec),
+    // along with the number of moves made. Tables created before these
+    // columns existed keep their games in the `json` column until they are
+    // next updated.
+    addColumnIfMissing("game", "state", "BLOB NULL");
+    addColumnIfMissing("game", "ply", "int NOT NULL DEFAULT 0");
   }
 
   // Clears all games.
   public void clear() throws ResponseException {
-    var statement = "DELETE FROM game";
-    executeUpdate(statement);
+    executeUpdate(CLEAR);
   }
 
   // Create a new game.
   public GameData createGame(GameData game) throws ResponseException {
-    var statement =
-        "INSERT INTO game (whiteUsername, blackUsername, gameName, json) VALUES (?, ?, ?, ?)";
-    var json = game.getGame() == null ? null : new Gson().toJson(game.getGame());
+    var state = game.getGame() == null ? null : GameCodec.encode(game.getGame());
+    var ply = game.getGame() == null ? 0 : game.getGame().getPly();
     var whiteUsername = game.getWhiteUsername();
     var blackUsername = game.getBlackUsername();
     var gameName = game.getGameName();
-    System.out.println(
-        "Creating game: " + whiteUsername + ", " + blackUsername + ", " + gameName + ", " + json);
-    var id = executeUpdate(statement, whiteUsername, blackUsername, gameName, json);
+    System.out.println("Creating game: " + whiteUsername + ", " + blackUsername + ", " + gameName);
+    var id = executeUpdate(CREATE, whiteUsername, blackUsername, gameName, state, ply);
     System.out.println("Created game with ID: " + id);
     return new GameData(id, whiteUsername, blackUsername, gameName, game.getGame());
   }
@@ -53,16 +81,7 @@ public class SQLGameDataAccess extends SQLDataAccess implements GameDataAccess {
   // to a given gameID. This is used when players join a game or when a move is
   // made.
   public GameData updateGame(int gameID, GameData game) throws ResponseException {
-    var statement =
-        "UPDATE game SET whiteUsername = ?, blackUsername = ?, gameName = ?, json = ? WHERE gameID"
-            + " = ?";
-    executeUpdate(
-        statement,
-        game.getWhiteUsername(),
-        game.getBlackUsername(),
-        game.getGameName(),
-        new Gson().toJson(game.getGame()),
-        gameID);
+    executeUpdate(UPDATE, updateParams(gameID, game));
     return new GameData(
         gameID,
         game.getWhiteUsername(),
@@ -71,11 +90,27 @@ public class SQLGameDataAccess extends SQLDataAccess implements GameDataAccess {
         game.getGame());
   }
 
+  // Updates a game on a connection the caller holds, e.g. as part of a
+  // transaction.
+  protected void updateGame(Connection conn, int gameID, GameData game) throws SQLException {
+    executeUpdate(conn, UPDATE, updateParams(gameID, game));
+  }
+
+  private static Object[] updateParams(int gameID, GameData game) {
+    return new Object[] {
+      game.getWhiteUsername(),
+      game.getBlackUsername(),
+      game.getGameName(),
+      game.getGame() == null ? null : GameCodec.encode(game.getGame()),
+      game.getGame() == null ? 0 : game.getGame().getPly(),
+      gameID
+    };
+  }
+
   // Retrieve a specified game with the given game ID.
   public GameData getGame(int gameID) throws ResponseException {
     try (var conn = DatabaseManager.getConnection()) {
-      var statement = "SELECT * FROM game WHERE gameID = ?";
-      try (var ps = conn.prepareStatement(statement)) {
+      try (var ps = conn.prepareStatement(GET.getSql())) {
         ps.setInt(1, gameID);
         try (var rs = ps.executeQuery()) {
           if (rs.next()) {
@@ -93,8 +128,7 @@ public class SQLGameDataAccess extends SQLDataAccess implements GameDataAccess {
   public Collection<GameData> listGames() throws ResponseException {
     var result = new ArrayList<GameData>();
     try (var conn = DatabaseManager.getConnection()) {
-      var statement = "SELECT * FROM game";
-      try (var ps = conn.prepareStatement(statement)) {
+      try (var ps = conn.prepareStatement(LIST.getSql())) {
         try (var rs = ps.executeQuery()) {
           while (rs.next()) {
             result.add(readGame(rs));
@@ -112,8 +146,13 @@ public class SQLGameDataAccess extends SQLDataAccess implements GameDataAccess {
     var whiteUsername = rs.getString("whiteUsername");
     var blackUsername = rs.getString("blackUsername");
     var gameName = rs.getString("gameName");
-    var json = rs.getString("json");
-    var game = new Gson().fromJson(json, ChessGame.class);
+    // Games written before the `state` column existed are still JSON.
+    var state = rs.getBytes("state");
+    var game =
+        state != null
+            ? GameCodec.decode(state)
+            : new Gson().fromJson(rs.getString("json"), ChessGame.class);
+    if (state != null) game.setPly(rs.getInt("ply"));
     return new GameData(gameID, whiteUsername, blackUsername, gameName, game);
   }
 }
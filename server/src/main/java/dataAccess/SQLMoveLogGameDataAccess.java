@@ -0,0 +1,159 @@
+package dataAccess;
+
+import chess.ChessMove;
+import chess.Move;
+import exception.ResponseException;
+import java.sql.*;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import model.GameData;
+
+// Stores games as a snapshot in the `game` table plus an append-only log of
+// the moves made since, so making a move inserts one small row instead of
+// rewriting the whole game. Every SNAPSHOT_INTERVAL plies the snapshot is
+// brought up to date so that loading a game never replays many moves.
+//
+// Moves are only logged through appendMove(). Joining, leaving and resigning
+// still go through updateGame(), which writes a fresh snapshot.
+public class SQLMoveLogGameDataAccess extends SQLGameDataAccess {
+  private static final int SNAPSHOT_INTERVAL = 32;
+
+  // There is deliberately no foreign key to `game`, so that the game table
+  // can still be dropped and recreated on its own. Any moves left behind by
+  // an old game are removed when a new game takes its ID.
+  private static final String[] createStatements = {
+    """
+    CREATE TABLE IF NOT EXISTS game_move (
+      gameID int NOT NULL,
+      ply int NOT NULL,
+      move int NOT NULL,
+      PRIMARY KEY (gameID, ply)
+    );
+    """
+  };
+
+  private static final NamedStatement CLEAR =
+      NamedStatement.register("clearMoves", "DELETE FROM game_move");
+  private static final NamedStatement DELETE_GAME_MOVES =
+      NamedStatement.register("deleteGameMoves", "DELETE FROM game_move WHERE gameID = ?");
+  // Appending a move that is already logged just writes it again, so a
+  // write that is retried after it succeeded does not fail.
+  private static final NamedStatement APPEND =
+      NamedStatement.register(
+          "appendMove",
+          "INSERT INTO game_move (gameID, ply, move) VALUES (?, ?, ?)"
+              + " ON DUPLICATE KEY UPDATE move = VALUES(move)");
+  private static final NamedStatement GET_MOVES =
+      NamedStatement.register(
+          "getMoves", "SELECT move FROM game_move WHERE gameID = ? AND ply > ? ORDER BY ply");
+  private static final NamedStatement LIST_MOVES =
+      NamedStatement.register(
+          "listMoves",
+          "SELECT m.gameID, m.ply, m.move FROM game_move m JOIN game g ON g.gameID = m.gameID"
+              + " WHERE m.ply > g.ply ORDER BY m.gameID, m.ply");
+
+  public SQLMoveLogGameDataAccess() throws ResponseException {
+    super();
+    configureDatabase(createStatements);
+  }
+
+  // Clears all games and their moves.
+  public void clear() throws ResponseException {
+    executeUpdate(CLEAR);
+    super.clear();
+  }
+
+  // Create a new game.
+  public GameData createGame(GameData game) throws ResponseException {
+    var created = super.createGame(game);
+    executeUpdate(DELETE_GAME_MOVES, created.getGameId());
+    return created;
+  }
+
+  // Logs a move that has just been made. The game's ply is the ply of the
+  // move, as it has already been made. When the snapshot is brought up to
+  // date too, both are written in one transaction, so that a failure leaves
+  // neither behind.
+  public GameData appendMove(int gameID, GameData game, ChessMove move) throws ResponseException {
+    var ply = game.getGame().getPly();
+    if (ply % SNAPSHOT_INTERVAL != 0) {
+      executeUpdate(APPEND, gameID, ply, Move.fromChessMove(move));
+      return game;
+    }
+    try (var conn = DatabaseManager.getConnection()) {
+      conn.setAutoCommit(false);
+      try {
+        executeUpdate(conn, APPEND, gameID, ply, Move.fromChessMove(move));
+        updateGame(conn, gameID, game);
+        conn.commit();
+      } catch (SQLException e) {
+        conn.rollback();
+        throw e;
+      } finally {
+        conn.setAutoCommit(true);
+      }
+    } catch (Exception e) {
+      throw new ResponseException(500, String.format("Unable to write move: %s", e.getMessage()));
+    }
+    return game;
+  }
+
+  // Retrieve a specified game with the given game ID, replaying any moves made
+  // since its snapshot.
+  public GameData getGame(int gameID) throws ResponseException {
+    var gameData = super.getGame(gameID);
+    if (gameData == null || gameData.getGame() == null) return gameData;
+    try (var conn = DatabaseManager.getConnection()) {
+      try (var ps = conn.prepareStatement(GET_MOVES.getSql())) {
+        ps.setInt(1, gameID);
+        ps.setInt(2, gameData.getGame().getPly());
+        try (var rs = ps.executeQuery()) {
+          while (rs.next()) replay(gameData, rs.getInt("move"));
+        }
+      }
+    } catch (Exception e) {
+      throw new ResponseException(500, String.format("Unable to read data: %s", e.getMessage()));
+    }
+    return gameData;
+  }
+
+  // Retrieve all games, replaying the moves made since each game's snapshot
+  // with a single query. A game whose snapshot moved on between the two
+  // queries is missing moves, so it is loaded again on its own.
+  public Collection<GameData> listGames() throws ResponseException {
+    var games = super.listGames();
+    var gamesByID = new HashMap<Integer, GameData>();
+    var stale = new HashSet<Integer>();
+    for (var game : games) gamesByID.put(game.getGameId(), game);
+    try (var conn = DatabaseManager.getConnection()) {
+      try (var ps = conn.prepareStatement(LIST_MOVES.getSql())) {
+        try (var rs = ps.executeQuery()) {
+          while (rs.next()) {
+            var gameData = gamesByID.get(rs.getInt("gameID"));
+            if (gameData == null || gameData.getGame() == null) continue;
+            var ply = rs.getInt("ply");
+            if (ply == gameData.getGame().getPly() + 1) {
+              replay(gameData, rs.getInt("move"));
+            } else if (ply > gameData.getGame().getPly()) {
+              stale.add(gameData.getGameId());
+            }
+          }
+        }
+      }
+    } catch (Exception e) {
+      throw new ResponseException(500, String.format("Unable to read data: %s", e.getMessage()));
+    }
+    for (var gameID : stale) {
+      var current = getGame(gameID);
+      if (current != null) gamesByID.get(gameID).setGame(current.getGame());
+    }
+    return games;
+  }
+
+  // Moves were validated when they were made, so they can be replayed without
+  // checking them again.
+  private void replay(GameData gameData, int move) {
+    gameData.getGame().makeMoveUnchecked(Move.toChessMove(move));
+  }
+}
@@ -16,21 +16,30 @@ public class SQLUserDataAccess extends SQLDataAccess implements UserDataAccess {
     """
   };
 
+  private static final NamedStatement CLEAR =
+      NamedStatement.register("clearUsers", "DELETE FROM user");
+  private static final NamedStatement CREATE =
+      NamedStatement.register(
+          "createUser", "INSERT INTO user (username, password, email) VALUES (?, ?, ?)");
+  private static final NamedStatement GET =
+      NamedStatement.register(
+          "getUser", "SELECT username, password, email FROM user WHERE username = ?");
+  private static final NamedStatement UPDATE_PASSWORD =
+      NamedStatement.register("updatePassword", "UPDATE user SET password = ? WHERE username = ?");
+
   public SQLUserDataAccess() throws ResponseException {
     super(createStatements);
   }
 
   // Clears all users.
   public void clear() throws ResponseException {
-    var statement = "DELETE FROM user";
-    executeUpdate(statement);
+    executeUpdate(CLEAR);
   }
 
   // Create a new user.
   public UserData createUser(UserData user) throws ResponseException {
     System.out.println("Creating user: " + user.getUsername());
-    var statement = "INSERT INTO user (username, password, email) VALUES (?, ?, ?)";
-    executeUpdate(statement, user.getUsername(), user.getPassword(), user.getEmail());
+    executeUpdate(CREATE, user.getUsername(), user.getPassword(), user.getEmail());
     return new UserData(user.getUsername(), user.getPassword(), user.getEmail());
   }
 
@@ -38,8 +47,7 @@ public class SQLUserDataAccess extends SQLDataAccess implements UserDataAccess {
   public UserData getUser(String username) throws ResponseException {
     System.out.println("Getting user: " + username);
     try (var conn = DatabaseManager.getConnection()) {
-      var statement = "SELECT username, password, email FROM user WHERE username=?";
-      try (var ps = conn.prepareStatement(statement)) {
+      try (var ps = conn.prepareStatement(GET.getSql())) {
         ps.setString(1, username);
         System.out.println("Executing: " + ps.toString());
         try (var rs = ps.executeQuery()) {
@@ -54,6 +62,12 @@ public class SQLUserDataAccess extends SQLDataAccess implements UserDataAccess {
     return null;
   }
 
+  // Replace a user's password hash.
+  public void updatePassword(String username, String password) throws ResponseException {
+    System.out.println("Updating password for user: " + username);
+    executeUpdate(UPDATE_PASSWORD, password, username);
+  }
+
   private UserData readUser(ResultSet rs) throws SQLException {
     var username = rs.getString("username");
     var password = rs.getString("password");
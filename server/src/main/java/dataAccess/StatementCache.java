@@ -0,0 +1,165 @@
+package dataAccess;
+
+import static java.sql.Statement.NO_GENERATED_KEYS;
+import static java.sql.Statement.RETURN_GENERATED_KEYS;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Caches the prepared statements of one physical connection, keyed by SQL text, so that running the
+ * same SQL again on that connection skips parsing and planning it.
+ *
+ * <p>Statements handed out by {@link #prepare} look like ordinary prepared statements, but closing
+ * one clears its parameters and keeps it open for the next caller. The least recently used
+ * statement is closed once the cache is full. A statement that is asked for while it is already in
+ * use (e.g. a query nested inside another) is prepared again without caching.
+ *
+ * <p>{@link PreparedStatement#getConnection} on a handed-out statement returns the pooled
+ * connection it was prepared through, never the physical one, so callers cannot close the physical
+ * connection behind the pool's back.
+ *
+ * <p>Not thread-safe: a connection, and thus its cache, is only used by one thread at a time.
+ */
+class StatementCache {
+  private static final class Entry {
+    final PreparedStatement statement;
+    boolean inUse = false;
+    boolean evicted = false;
+
+    Entry(PreparedStatement statement) {
+      this.statement = statement;
+    }
+  }
+
+  private final Connection connection;
+  private final Map<String, Entry> entries;
+
+  /**
+   * @param connection the physical connection to prepare statements on
+   * @param maxSize the most statements to keep open, or 0 to disable caching
+   */
+  StatementCache(Connection connection, int maxSize) {
+    this.connection = connection;
+    this.entries =
+        new LinkedHashMap<>(16, 0.75f, true) {
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            if (size() <= maxSize) return false;
+            var entry = eldest.getValue();
+            entry.evicted = true;
+            if (!entry.inUse) closeQuietly(entry.statement);
+            return true;
+          }
+        };
+  }
+
+  /**
+   * Prepares every registered statement ahead of time. Statements that cannot be prepared yet (e.g.
+   * because their table has not been created) are skipped, and will be prepared when first used.
+   */
+  void warm() {
+    for (var statement : NamedStatement.all()) {
+      try {
+        prepare(
+                statement.getSql(),
+                statement.returnsGeneratedKeys() ? RETURN_GENERATED_KEYS : NO_GENERATED_KEYS,
+                connection)
+            .close();
+      } catch (SQLException e) {
+        // Prepared on first use instead.
+      }
+    }
+  }
+
+  /**
+   * Gets a prepared statement for the given SQL, reusing a cached one if possible
+   *
+   * @param sql the statement's SQL
+   * @param autoGeneratedKeys whether generated keys should be returned (see {@link
+   *     Connection#prepareStatement(String, int)})
+   * @param owner the connection to return from the statement's {@code getConnection()}
+   * @return A statement whose {@code close()} returns it to the cache
+   */
+  PreparedStatement prepare(String sql, int autoGeneratedKeys, Connection owner)
+      throws SQLException {
+    var key = autoGeneratedKeys == RETURN_GENERATED_KEYS ? "+" + sql : "-" + sql;
+    var entry = entries.get(key);
+    if (entry != null && entry.inUse) {
+      return wrap(connection.prepareStatement(sql, autoGeneratedKeys), null, owner);
+    }
+    if (entry == null) {
+      entry = new Entry(connection.prepareStatement(sql, autoGeneratedKeys));
+      entries.put(key, entry);
+    }
+    entry.inUse = true;
+    return wrap(entry.statement, entry, owner);
+  }
+
+  /** Closes every cached statement. */
+  void close() {
+    for (var entry : entries.values()) closeQuietly(entry.statement);
+    entries.clear();
+  }
+
+  // Wraps a statement so that closing it returns it to its cache entry, or
+  // closes it if it is not cached (entry is null).
+  private PreparedStatement wrap(PreparedStatement statement, Entry entry, Connection owner) {
+    return (PreparedStatement)
+        Proxy.newProxyInstance(
+            PreparedStatement.class.getClassLoader(),
+            new Class<?>[] {PreparedStatement.class},
+            new InvocationHandler() {
+              private boolean returned = false;
+
+              @Override
+              public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                switch (method.getName()) {
+                  case "close":
+                    if (!returned) {
+                      returned = true;
+                      if (entry == null || entry.evicted) {
+                        if (entry != null) entry.inUse = false;
+                        statement.close();
+                      } else {
+                        entry.inUse = false;
+                        statement.clearParameters();
+                      }
+                    }
+                    return null;
+                  case "isClosed":
+                    return returned || statement.isClosed();
+                  case "getConnection":
+                    if (returned) throw new SQLException("Statement has been closed");
+                    return owner;
+                  case "equals":
+                    return proxy == args[0];
+                  case "hashCode":
+                    return System.identityHashCode(proxy);
+                  default:
+                    if (returned) throw new SQLException("Statement has been closed");
+                    try {
+                      return method.invoke(statement, args);
+                    } catch (InvocationTargetException e) {
+                      throw e.getCause();
+                    }
+                }
+              }
+            });
+  }
+
+  private static void closeQuietly(PreparedStatement statement) {
+    try {
+      statement.close();
+    } catch (SQLException e) {
+      System.err.println("Failed to close cached statement: " + e.getMessage());
+    }
+  }
+}
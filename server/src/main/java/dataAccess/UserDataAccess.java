@@ -9,4 +9,7 @@ public interface UserDataAccess extends DataAccess {
 
   // Retrieve a user with the given username.
   public UserData getUser(String username) throws ResponseException;
+
+  // Replace a user's password hash.
+  public void updatePassword(String username, String password) throws ResponseException;
 }
@@ -0,0 +1,58 @@
+package server;
+
+import com.google.gson.Gson;
+import java.nio.ByteBuffer;
+import webSocketMessages.serverMessages.BinaryLoadGame;
+import webSocketMessages.serverMessages.LoadGame;
+import webSocketMessages.serverMessages.MoveMade;
+import webSocketMessages.serverMessages.ServerMessage;
+
+// A server message encoded once, so that broadcasting it to many sessions
+// does not encode it again for each one. Both the JSON form and, for a
+// LoadGame, the binary form (see BinaryLoadGame) are encoded up front, by the
+// thread that sends the message, so the queued message never reads the game
+// again from another thread.
+public class EncodedMessage {
+  private final ServerMessage message;
+  private final String json;
+  private final ByteBuffer binary;
+
+  public EncodedMessage(ServerMessage message, Gson gson) {
+    this.message = message;
+    this.json = gson.toJson(message);
+    this.binary =
+        message instanceof LoadGame load && load.getGameData().getGame() != null
+            ? BinaryLoadGame.encode(load.getGameData())
+            : null;
+  }
+
+  public ServerMessage message() {
+    return message;
+  }
+
+  public String json() {
+    return json;
+  }
+
+  // Whether the message has a binary form.
+  public boolean hasBinary() {
+    return binary != null;
+  }
+
+  // Whether this message makes another one redundant: a LoadGame replaces an
+  // earlier LoadGame or MoveMade for the same game.
+  public boolean supersedes(EncodedMessage other) {
+    if (!(message instanceof LoadGame load)) return false;
+    var gameID = load.getGameData().getGameId();
+    if (other.message instanceof LoadGame otherLoad) {
+      return otherLoad.getGameData().getGameId() == gameID;
+    }
+    return other.message instanceof MoveMade moveMade && moveMade.getGameId() == gameID;
+  }
+
+  // Gets the binary form. Each caller gets its own view of the shared bytes,
+  // so sends to different sessions do not move each other's position.
+  public ByteBuffer binary() {
+    return binary.asReadOnlyBuffer();
+  }
+}
@@ -0,0 +1,92 @@
+package server;
+
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Runs tasks one game at a time. Each game has a mailbox of pending tasks,
+// which are run in the order they were submitted, one after another, so a
+// game's state is only ever changed by one task at a time. Different games'
+// tasks run in parallel.
+//
+// A game's mailbox only exists while it has tasks, and is drained by a single
+// virtual thread, so idle games cost nothing and busy games do not hold a
+// platform thread. Mailboxes are created, added to and removed inside
+// ConcurrentHashMap.compute(), which locks only the game's hash bin.
+public class GameExecutor implements AutoCloseable {
+  // A game's pending tasks. Only accessed inside compute() for its game.
+  private static class Mailbox {
+    final ArrayDeque<Runnable> tasks = new ArrayDeque<>();
+  }
+
+  private final Map<Integer, Mailbox> mailboxes = new ConcurrentHashMap<>();
+  private final ExecutorService executor;
+
+  public GameExecutor() {
+    this(Executors.newVirtualThreadPerTaskExecutor());
+  }
+
+  // Runs each game's tasks on the given executor.
+  public GameExecutor(ExecutorService executor) {
+    this.executor = executor;
+  }
+
+  // Queues a task for a game. It runs after every task already queued for
+  // that game.
+  public void execute(int gameID, Runnable task) {
+    mailboxes.compute(
+        gameID,
+        (id, mailbox) -> {
+          if (mailbox == null) {
+            // Nothing is running for this game, so start draining.
+            mailbox = new Mailbox();
+            executor.execute(() -> drain(gameID));
+          }
+          mailbox.tasks.add(task);
+          return mailbox;
+        });
+  }
+
+  // Stops accepting tasks and waits for queued tasks to finish.
+  @Override
+  public void close() {
+    executor.close();
+  }
+
+  // Runs a game's tasks until its mailbox is empty, then removes it. If a
+  // task throws an Error, it ends this thread, but the mailbox is still there,
+  // so a new thread is started to drain the rest rather than leave them stuck.
+  private void drain(int gameID) {
+    var drained = false;
+    try {
+      while (true) {
+        var task = next(gameID);
+        if (task == null) {
+          drained = true;
+          return;
+        }
+        try {
+          task.run();
+        } catch (RuntimeException e) {
+          System.err.println("Task for game " + gameID + " failed: " + e.getMessage());
+        }
+      }
+    } finally {
+      if (!drained) executor.execute(() -> drain(gameID));
+    }
+  }
+
+  // Takes the next task, or removes the mailbox if there are none left.
+  private Runnable next(int gameID) {
+    var next = new Runnable[1];
+    mailboxes.computeIfPresent(
+        gameID,
+        (id, current) -> {
+          next[0] = current.tasks.poll();
+          return next[0] == null ? null : current;
+        });
+    return next[0];
+  }
+}
@@ -1,11 +1,11 @@
 package server;
 
+import chess.ChessGame;
 import chess.ChessGame.TeamColor;
+import chess.ChessMove;
 import com.google.gson.Gson;
 import dataAccess.*;
 import exception.ResponseException;
-import java.util.HashMap;
-import java.util.HashSet;
 import model.*;
 import org.eclipse.jetty.websocket.api.*;
 import org.eclipse.jetty.websocket.api.annotations.*;
@@ -13,28 +13,89 @@ import service.*;
 import spark.Request;
 import spark.Response;
 import spark.Spark;
+import spark.embeddedserver.EmbeddedServers;
+import spark.embeddedserver.jetty.EmbeddedJettyFactory;
 import webSocketMessages.serverMessages.*;
 import webSocketMessages.userCommands.*;
 
 @WebSocket
 public class Server {
   private static final Gson gson = new Gson();
+
+  // How often changed games are written to the database, and how many games
+  // are kept in memory (see CachingGameDataAccess).
+  private static final long GAME_FLUSH_INTERVAL_MILLIS = 250;
+  private static final int MAX_CACHED_GAMES = 1000;
+
+  // How long auth lookups are cached for, and how many tokens are kept (see
+  // CachingAuthDataAccess).
+  private static final long AUTH_TTL_MILLIS = 60_000;
+  private static final long AUTH_NEGATIVE_TTL_MILLIS = 1_000;
+  private static final int MAX_CACHED_AUTHS = 10_000;
+
+  // How many messages a client can fall behind before it is disconnected (see
+  // SessionSender).
+  private static final int MAX_QUEUED_MESSAGES = 64;
+
+  // Which threads handle requests and WebSocket messages: Jetty's default
+  // pool of platform threads, or a new virtual thread for each (see
+  // VirtualThreadPool). Set with `-Dserver.threads=virtual`.
+  private static final String THREADS_PROPERTY = "server.threads";
+  private static final String VIRTUAL_THREADS = "virtual";
+
+  // The BCrypt cost for new password hashes, set with `-Dauth.bcrypt.cost=12`,
+  // and how many hashes can wait for a thread before logins are turned away
+  // (see PasswordHasher).
+  private static final String BCRYPT_COST_PROPERTY = "auth.bcrypt.cost";
+  private static final int DEFAULT_BCRYPT_COST = 10;
+  private static final int MAX_QUEUED_HASHES = 64;
+
+  // How many threads hash passwords, set with `-Dauth.hash.threads=2`. By
+  // default a quarter of the CPUs, so a flood of logins leaves the rest free
+  // for games.
+  private static final String HASH_THREADS_PROPERTY = "auth.hash.threads";
+  private static final int DEFAULT_HASH_THREADS =
+      Math.max(1, Runtime.getRuntime().availableProcessors() / 4);
+
   private UserDataAccess userDataAccess;
   private AuthDataAccess authDataAccess;
-  private GameDataAccess gameDataAccess;
+  private CachingGameDataAccess gameDataAccess;
+  private PasswordHasher passwordHasher;
   private UserService userService;
   private GameService gameService;
   private DataService dataService;
 
   // Track all connected sessions by gameID.
-  private HashMap<Integer, HashSet<Session>> sessions = new HashMap<Integer, HashSet<Session>>();
+  private final SessionRegistry<Session> sessions = new SessionRegistry<>();
+
+  // Runs each game's commands one at a time, so that two commands for the
+  // same game cannot interleave their reads and writes.
+  private final GameExecutor gameExecutor = new GameExecutor();
+
+  // Queues outgoing messages for each session, so that a slow client never
+  // holds up a game.
+  private final SessionSender sender =
+      new SessionSender(MAX_QUEUED_MESSAGES, sessions::removeSession);
+
+  // Every command names its game. Parsing just that field picks the game's
+  // executor before the full command is parsed.
+  private record GameCommand(int gameID) {}
 
   public Server() {
     try {
       userDataAccess = new SQLUserDataAccess();
-      authDataAccess = new SQLAuthDataAccess();
-      gameDataAccess = new SQLGameDataAccess();
-      userService = new UserService(userDataAccess, authDataAccess);
+      authDataAccess =
+          new CachingAuthDataAccess(
+              new SQLAuthDataAccess(), AUTH_TTL_MILLIS, AUTH_NEGATIVE_TTL_MILLIS, MAX_CACHED_AUTHS);
+      gameDataAccess =
+          new CachingGameDataAccess(
+              new SQLMoveLogGameDataAccess(), GAME_FLUSH_INTERVAL_MILLIS, MAX_CACHED_GAMES);
+      passwordHasher =
+          new PasswordHasher(
+              Integer.getInteger(BCRYPT_COST_PROPERTY, DEFAULT_BCRYPT_COST),
+              Integer.getInteger(HASH_THREADS_PROPERTY, DEFAULT_HASH_THREADS),
+              MAX_QUEUED_HASHES);
+      userService = new UserService(userDataAccess, authDataAccess, passwordHasher);
       gameService = new GameService(authDataAccess, gameDataAccess);
       dataService = new DataService(userDataAccess, authDataAccess, gameDataAccess);
     } catch (Throwable ex) {
@@ -46,6 +107,18 @@ public class Server {
   @OnWebSocketMessage
   public void onMessage(Session session, String message) throws Exception {
     System.out.printf("Received message: %s%n", message);
+    var gameID = gson.fromJson(message, GameCommand.class).gameID();
+    gameExecutor.execute(gameID, () -> handleCommand(session, message));
+  }
+
+  @OnWebSocketClose
+  public void onClose(Session session, int statusCode, String reason) {
+    sessions.removeSession(session);
+    sender.remove(session);
+  }
+
+  // Runs a command on its game's executor.
+  private void handleCommand(Session session, String message) {
     var command = gson.fromJson(message, UserGameCommand.class);
     try {
       var authData = authDataAccess.getAuth(command.getAuthString());
@@ -65,6 +138,9 @@ public class Server {
         case RESIGN:
           resign(session, message, authData);
           break;
+        case REFRESH:
+          refresh(session, message, authData);
+          break;
       }
     } catch (Exception e) {
       var errorMessage =
@@ -140,23 +216,30 @@ public class Server {
     }
 
     game.makeMove(move.getMove());
-    gameDataAccess.updateGame(gameData.getGameId(), gameData);
-    sendToAll(move.getGameId(), new LoadGame(gameData));
+    gameDataAccess.appendMove(gameData.getGameId(), gameData, move.getMove());
+    var status = game.status();
+    sendMove(gameData, move.getMove(), status);
     sendToOthers(session, move.getGameId(), new Notification(notification));
 
-    // If the game is over, send a notification to all players.
-    for (var teamColor : TeamColor.values()) {
-      if (game.isInCheckmate(teamColor)) {
+    // If the game is over, send a notification to all players. Only the team
+    // whose turn it now is can be in check, as the move just made was valid.
+    var teamColor = game.getTeamTurn();
+    switch (status) {
+      case CHECKMATE:
         sendToAll(
             move.getGameId(),
             new Notification("The game is in checkmate! " + teamColor + " has been defeated."));
-      } else if (game.isInCheck(teamColor)) {
+        break;
+      case CHECK:
         sendToAll(
             move.getGameId(),
             new Notification("The game is in check! " + teamColor + " must save themselves!"));
-      } else if (game.isInStalemate(teamColor)) {
+        break;
+      case STALEMATE:
         sendToAll(move.getGameId(), new Notification("The game is a stalemate!"));
-      }
+        break;
+      default:
+        break;
     }
   }
 
@@ -199,46 +282,93 @@ public class Server {
     sendToAll(resign.getGameId(), new Notification(notification));
   }
 
+  // Sends the whole game again to a client whose copy fell out of step.
+  private void refresh(Session session, String message, AuthData authData) throws Exception {
+    if (authData == null) throw new Exception("You are not logged in.");
+    var refresh = gson.fromJson(message, Refresh.class);
+    var gameData = gameDataAccess.getGame(refresh.getGameId());
+    if (gameData == null) throw new Exception("Game not found.");
+    send(session, new LoadGame(gameData));
+  }
+
+  // Joins run on the game's executor, so the socket may have closed since the
+  // command arrived. A session that closes before the check below is dropped
+  // here; one that closes after it is dropped by onClose().
   private void addSession(int gameID, Session session) {
-    if (!sessions.containsKey(gameID)) sessions.put(gameID, new HashSet<Session>());
-    sessions.get(gameID).add(session);
+    sessions.add(gameID, session);
+    dropClosed(gameID, session);
   }
 
   private void removeSession(int gameID, Session session) {
-    if (sessions.containsKey(gameID)) sessions.get(gameID).remove(session);
+    sessions.remove(gameID, session);
   }
 
-  private void send(Session session, ServerMessage message) throws Exception {
-    session.getRemote().sendString(gson.toJson(message));
+  private void send(Session session, ServerMessage message) {
+    sender.send(session, new EncodedMessage(message, gson));
   }
 
-  private void sendToAll(int gameID, ServerMessage message) throws Exception {
+  private void sendToAll(int gameID, ServerMessage message) {
     sendToSessions(gameID, message, null);
   }
 
-  private void sendToOthers(Session skip, int gameID, ServerMessage message) throws Exception {
+  private void sendToOthers(Session skip, int gameID, ServerMessage message) {
     sendToSessions(gameID, message, skip);
   }
 
-  private void sendToSessions(int gameID, ServerMessage message, Session skip) throws Exception {
-    sessions
-        .get(gameID)
-        .forEach(
-            (session) -> {
-              if (skip != null && session.equals(skip)) {
-                System.out.println("Skipping current session...");
-              } else {
-                try {
-                  send(session, message);
-                } catch (Exception e) {
-                  System.err.println("Failed to send message to session: " + e.getMessage());
-                  System.err.println(e.getStackTrace());
-                }
-              }
-            });
+  // Tells a game's sessions about a move. Clients that asked for moves (see
+  // MoveMade) get just the move, and everyone else gets the whole game. Each
+  // form is encoded at most once.
+  private void sendMove(GameData gameData, ChessMove move, ChessGame.GameStatus status) {
+    var game = gameData.getGame();
+    EncodedMessage moveMade = null;
+    EncodedMessage loadGame = null;
+    for (var session : sessions.sessions(gameData.getGameId())) {
+      if (dropClosed(gameData.getGameId(), session)) continue;
+      if (wantsMoves(session)) {
+        if (moveMade == null) {
+          var message = new MoveMade(gameData.getGameId(), move, game.getPly(), status);
+          moveMade = new EncodedMessage(message, gson);
+        }
+        sender.send(session, moveMade);
+      } else {
+        if (loadGame == null) loadGame = new EncodedMessage(new LoadGame(gameData), gson);
+        sender.send(session, loadGame);
+      }
+    }
+  }
+
+  private boolean wantsMoves(Session session) {
+    var updates = session.getUpgradeRequest().getParameterMap().get(MoveMade.PARAMETER);
+    return updates != null && updates.contains(MoveMade.DELTA);
+  }
+
+  // Broadcasts a message to a game's sessions, encoding it only once.
+  private void sendToSessions(int gameID, ServerMessage message, Session skip) {
+    var encoded = new EncodedMessage(message, gson);
+    for (var session : sessions.sessions(gameID)) {
+      if (skip != null && session.equals(skip)) continue;
+      if (dropClosed(gameID, session)) continue;
+      sender.send(session, encoded);
+    }
+  }
+
+  // Removes a session that closed before it could be removed from a game, and
+  // returns whether it did. Only the given game is known here, so the session
+  // is removed from that one directly; onClose() removes it from the rest.
+  private boolean dropClosed(int gameID, Session session) {
+    if (session.isOpen()) return false;
+    removeSession(gameID, session);
+    sender.remove(session);
+    return true;
   }
 
   public int run(int desiredPort) {
+    // The embedded server factory is global, so set it every time in case an
+    // earlier server in this JVM used a different mode.
+    var virtual = VIRTUAL_THREADS.equalsIgnoreCase(System.getProperty(THREADS_PROPERTY));
+    EmbeddedServers.add(
+        EmbeddedServers.defaultIdentifier(),
+        new EmbeddedJettyFactory().withThreadPool(virtual ? new VirtualThreadPool() : null));
     Spark.port(desiredPort);
 
     Spark.staticFiles.location("web");
@@ -247,8 +377,9 @@ public class Server {
     // becomes unwieldy, I'll move them to their own classes.
     // https://github.com/softwareconstruction240/softwareconstruction/blob/main/chess/3-web-api/web-api.md#endpoint-specifications
 
-    // Opens a websocket connection.
-    Spark.webSocket("/connect", Server.class);
+    // Opens a websocket connection. This instance handles it, so that
+    // WebSocket commands and HTTP requests share the same cached games.
+    Spark.webSocket("/connect", this);
 
     // Clears the database. Removes all users, games, and authTokens.
     Spark.delete("/db", (request, response) -> clearDatabase(request, response));
@@ -382,6 +513,9 @@ public class Server {
   public void stop() {
     Spark.stop();
     Spark.awaitStop();
+    gameExecutor.close();
+    if (gameDataAccess != null) gameDataAccess.close();
+    if (passwordHasher != null) passwordHasher.close();
   }
 
   public void clear() throws ResponseException {
@@ -0,0 +1,94 @@
+package server;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Tracks which sessions are connected to which games. It is safe to use from
+// Jetty's WebSocket threads without any global lock: each game's sessions are
+// a concurrent set, and the maps are only locked one entry (hash bin) at a
+// time while sessions are added and removed. A reverse index from each session to its games
+// lets a disconnected session be removed from all of them without scanning
+// every game.
+//
+// Every change to a session's games happens inside compute() for the session
+// in the reverse index, so adding and removing the same session on different
+// threads cannot leave it in a game but missing from the index. Each game's
+// set is changed within that, so the two maps are always locked in the same
+// order.
+//
+// The sets returned by sessions() can be iterated while other threads add and
+// remove sessions. They may or may not reflect those changes, but they never
+// throw ConcurrentModificationException.
+public class SessionRegistry<S> {
+  private final Map<Integer, Set<S>> sessionsByGame = new ConcurrentHashMap<>();
+  private final Map<S, Set<Integer>> gamesBySession = new ConcurrentHashMap<>();
+
+  // Adds a session to a game.
+  public void add(int gameID, S session) {
+    gamesBySession.compute(
+        session,
+        (s, games) -> {
+          if (games == null) games = ConcurrentHashMap.newKeySet();
+          games.add(gameID);
+          sessionsByGame.compute(
+              gameID,
+              (id, sessions) -> {
+                if (sessions == null) sessions = ConcurrentHashMap.newKeySet();
+                sessions.add(session);
+                return sessions;
+              });
+          return games;
+        });
+  }
+
+  // Removes a session from a game, dropping the game once it has no sessions
+  // left.
+  public void remove(int gameID, S session) {
+    gamesBySession.computeIfPresent(
+        session,
+        (s, games) -> {
+          games.remove(gameID);
+          removeFromGame(gameID, session);
+          return games.isEmpty() ? null : games;
+        });
+  }
+
+  // Removes a session from every game it is in, e.g. once it disconnects.
+  public void removeSession(S session) {
+    gamesBySession.computeIfPresent(
+        session,
+        (s, games) -> {
+          for (var gameID : games) removeFromGame(gameID, session);
+          return null;
+        });
+  }
+
+  // Gets the sessions connected to a game.
+  public Set<S> sessions(int gameID) {
+    var sessions = sessionsByGame.get(gameID);
+    return sessions == null ? Collections.emptySet() : Collections.unmodifiableSet(sessions);
+  }
+
+  // Gets the games a session is connected to.
+  public Set<Integer> games(S session) {
+    var games = gamesBySession.get(session);
+    return games == null ? Collections.emptySet() : Collections.unmodifiableSet(games);
+  }
+
+  // Gets the number of connected sessions.
+  public int size() {
+    return gamesBySession.size();
+  }
+
+  // Removes a session from one game's set, dropping the set once it is empty.
+  private void removeFromGame(int gameID, S session) {
+    sessionsByGame.computeIfPresent(
+        gameID,
+        (id, sessions) -> {
+          sessions.remove(session);
+          return sessions.isEmpty() ? null : sessions;
+        });
+  }
+}
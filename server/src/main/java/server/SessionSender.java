@@ -0,0 +1,134 @@
+package server;
+
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import org.eclipse.jetty.websocket.api.Session;
+import org.eclipse.jetty.websocket.api.StatusCode;
+import org.eclipse.jetty.websocket.api.WriteCallback;
+import webSocketMessages.serverMessages.BinaryLoadGame;
+
+// Sends messages to WebSocket sessions without ever waiting on a client's
+// network. Each session has a bounded outbox and at most one write in flight;
+// sending a message only queues it, and each finished write starts the next.
+//
+// A queued LoadGame or MoveMade is dropped when a newer LoadGame for the same
+// game is sent, as it would only be overwritten on arrival. A session that still
+// falls more than maxQueued messages behind is too slow to keep up, so it is
+// disconnected rather than holding up the server or using unbounded memory.
+public class SessionSender {
+  private final int maxQueued;
+  private final Consumer<Session> onEvict;
+  private final Map<Session, Outbox> outboxes = new ConcurrentHashMap<>();
+
+  // onEvict is called with each session that is disconnected for being slow.
+  public SessionSender(int maxQueued, Consumer<Session> onEvict) {
+    this.maxQueued = maxQueued;
+    this.onEvict = onEvict;
+  }
+
+  // Queues a message for a session. Messages to closed sessions, including
+  // ones that were disconnected for being slow, are dropped.
+  public void send(Session session, EncodedMessage message) {
+    if (!session.isOpen()) return;
+    outboxes.computeIfAbsent(session, Outbox::new).send(message);
+  }
+
+  // Drops a session's outbox, e.g. once it has disconnected.
+  public void remove(Session session) {
+    outboxes.remove(session);
+  }
+
+  // Gets the number of messages waiting to be written to a session.
+  public int queued(Session session) {
+    var outbox = outboxes.get(session);
+    return outbox == null ? 0 : outbox.queued();
+  }
+
+  private class Outbox implements WriteCallback {
+    private final Session session;
+    // Clients that connect with `?format=binary` get games as binary frames
+    // instead of JSON (see BinaryLoadGame).
+    private final boolean binary;
+    private final ArrayDeque<EncodedMessage> queue = new ArrayDeque<>();
+    private boolean writing = false;
+    private boolean evicted = false;
+
+    Outbox(Session session) {
+      this.session = session;
+      var format = session.getUpgradeRequest().getParameterMap().get("format");
+      this.binary = format != null && format.contains(BinaryLoadGame.FORMAT);
+    }
+
+    void send(EncodedMessage message) {
+      synchronized (this) {
+        if (evicted) return;
+        queue.removeIf(message::supersedes);
+        if (queue.size() >= maxQueued) {
+          evicted = true;
+          queue.clear();
+        } else {
+          queue.add(message);
+          if (writing) return;
+          writing = true;
+        }
+      }
+      if (evicted) {
+        evict();
+      } else {
+        writeNext();
+      }
+    }
+
+    synchronized int queued() {
+      return queue.size();
+    }
+
+    @Override
+    public void writeSuccess() {
+      writeNext();
+    }
+
+    @Override
+    public void writeFailed(Throwable error) {
+      System.err.println("Failed to send message to session: " + error.getMessage());
+      writeNext();
+    }
+
+    // Starts writing the next queued message, if there is one. A write that
+    // finishes straight away calls back into this, so a backlog is drained
+    // on the calling thread.
+    private void writeNext() {
+      EncodedMessage message;
+      synchronized (this) {
+        message = queue.poll();
+        if (message == null || evicted) {
+          writing = false;
+          return;
+        }
+      }
+      try {
+        if (binary && message.hasBinary()) {
+          session.getRemote().sendBytes(message.binary(), this);
+        } else {
+          session.getRemote().sendString(message.json(), this);
+        }
+      } catch (RuntimeException e) {
+        writeFailed(e);
+      }
+    }
+
+    private void evict() {
+      System.err.println("Disconnecting session that fell too far behind: " + session);
+      outboxes.remove(session, this);
+      onEvict.accept(session);
+      try {
+        session.close(StatusCode.TRY_AGAIN_LATER, "Too far behind");
+        session.disconnect();
+      } catch (Exception e) {
+        System.err.println("Failed to disconnect session: " + e.getMessage());
+      }
+    }
+  }
+}
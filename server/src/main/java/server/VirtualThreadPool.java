@@ -0,0 +1,76 @@
+package server;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.eclipse.jetty.util.component.AbstractLifeCycle;
+import org.eclipse.jetty.util.thread.ThreadPool;
+
+// A Jetty thread pool that runs every task on a new virtual thread. Request
+// handlers spend most of their time blocked on JDBC and BCrypt, which parks
+// a virtual thread instead of tying up a platform thread. The number of
+// requests in flight is then bounded by the database connection pool rather
+// than by a thread pool. Jetty's own selector and acceptor loops run as
+// tasks too, which the JDK supports by letting their blocking select() and
+// accept() calls borrow extra carrier threads.
+//
+// The pool is never low on threads, so Jetty never sheds load on its
+// account.
+public class VirtualThreadPool extends AbstractLifeCycle implements ThreadPool {
+  private static final long STOP_TIMEOUT_MILLIS = 5000;
+
+  private final AtomicInteger running = new AtomicInteger();
+  private ExecutorService executor;
+
+  @Override
+  protected void doStart() throws Exception {
+    var factory = Thread.ofVirtual().name("jetty-virtual-", 0).factory();
+    executor = Executors.newThreadPerTaskExecutor(factory);
+    super.doStart();
+  }
+
+  @Override
+  protected void doStop() throws Exception {
+    executor.shutdown();
+    if (!executor.awaitTermination(STOP_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+      executor.shutdownNow();
+    }
+    super.doStop();
+  }
+
+  @Override
+  public void execute(Runnable task) {
+    executor.execute(
+        () -> {
+          running.incrementAndGet();
+          try {
+            task.run();
+          } finally {
+            running.decrementAndGet();
+          }
+        });
+  }
+
+  @Override
+  public void join() throws InterruptedException {
+    if (executor != null) executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+  }
+
+  // Gets the number of tasks running right now, one per virtual thread.
+  @Override
+  public int getThreads() {
+    return running.get();
+  }
+
+  // Virtual threads are not kept around once their task is done.
+  @Override
+  public int getIdleThreads() {
+    return 0;
+  }
+
+  @Override
+  public boolean isLowOnThreads() {
+    return false;
+  }
+}
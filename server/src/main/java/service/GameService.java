@@ -61,7 +61,9 @@ public class GameService {
       game.setBlackUsername(auth.getUsername());
     } else if (joinGameRequest.getPlayerColor() == null) {
       // Add observer. Right now, there's nothing in the specification that
-      // actually requires this to be done. No "observer" fields required.
+      // actually requires this to be done. No "observer" fields required, so
+      // there is nothing to write.
+      return game;
     } else {
       throw new ResponseException(400, "invalid color");
     }
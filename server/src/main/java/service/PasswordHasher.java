@@ -0,0 +1,116 @@
+package service;
+
+import exception.ResponseException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+// Hashes and checks passwords with BCrypt on a small, dedicated pool of
+// threads. Each hash takes tens of milliseconds of CPU, so a burst of logins
+// run on request threads would take the CPU from everything else. Here, at
+// most `threads` hashes run at once, and at most `maxQueued` more wait. Past
+// that, requests are turned away straight away with a 503 rather than
+// queueing behind work that would leave them waiting for seconds.
+//
+// Each hash records the cost it was made with, so hashes made before the
+// cost was changed still verify. needsRehash() tells the caller to hash the
+// password again at the new cost once the user next logs in.
+public class PasswordHasher implements AutoCloseable {
+  private static final long IDLE_TIMEOUT_SECONDS = 30;
+
+  private final int cost;
+  private final BCryptPasswordEncoder encoder;
+  private final ThreadPoolExecutor executor;
+
+  // The threads are only started when passwords are hashed, and stop again
+  // once they have been idle for a while.
+  public PasswordHasher(int cost, int threads, int maxQueued) {
+    this.cost = cost;
+    this.encoder = new BCryptPasswordEncoder(cost);
+    var count = new AtomicInteger();
+    this.executor =
+        new ThreadPoolExecutor(
+            threads,
+            threads,
+            IDLE_TIMEOUT_SECONDS,
+            TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(maxQueued),
+            (runnable) -> {
+              var thread = new Thread(runnable, "password-hasher-" + count.incrementAndGet());
+              thread.setDaemon(true);
+              return thread;
+            },
+            new ThreadPoolExecutor.AbortPolicy());
+    this.executor.allowCoreThreadTimeOut(true);
+  }
+
+  // Hashes a password at the current cost.
+  public String hash(String password) throws ResponseException {
+    return run(() -> encoder.encode(password));
+  }
+
+  // Checks a password against a hash, whatever cost it was made with.
+  public boolean matches(String password, String hash) throws ResponseException {
+    return run(() -> encoder.matches(password, hash));
+  }
+
+  // Whether a hash was made with a different cost than the current one.
+  public boolean needsRehash(String hash) {
+    // BCrypt hashes look like `$2a$10$...`, where 10 is the cost.
+    if (hash == null || hash.length() < 7 || hash.charAt(0) != '$') return false;
+    try {
+      return Integer.parseInt(hash.substring(4, 6)) != cost;
+    } catch (NumberFormatException e) {
+      return false;
+    }
+  }
+
+  // Hashes a password in the background and hands the new hash to onHashed.
+  // If the hasher is busy, nothing happens, as the caller can try again
+  // another time.
+  public void rehash(String password, HashConsumer onHashed) {
+    try {
+      executor.execute(
+          () -> {
+            try {
+              onHashed.accept(encoder.encode(password));
+            } catch (Exception e) {
+              System.err.println("Failed to rehash password: " + e.getMessage());
+            }
+          });
+    } catch (RejectedExecutionException e) {
+      System.out.println("Skipping password rehash, as the hasher is busy");
+    }
+  }
+
+  // Receives a new password hash.
+  @FunctionalInterface
+  public interface HashConsumer {
+    void accept(String hash) throws Exception;
+  }
+
+  @Override
+  public void close() {
+    executor.shutdown();
+  }
+
+  // Runs a task on the hashing threads and waits for it, or fails fast if
+  // too many are already waiting.
+  private <T> T run(Callable<T> task) throws ResponseException {
+    try {
+      return executor.submit(task).get();
+    } catch (RejectedExecutionException e) {
+      throw new ResponseException(503, "server busy, try again later");
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new ResponseException(503, "interrupted");
+    } catch (ExecutionException e) {
+      throw new ResponseException(500, e.getCause().getMessage());
+    }
+  }
+}
@@ -8,10 +8,13 @@ import server.*;
 public class UserService {
   private UserDataAccess userDataAccess;
   private AuthDataAccess authDataAccess;
+  private PasswordHasher passwordHasher;
 
-  public UserService(UserDataAccess userDataAccess, AuthDataAccess authDataAccess) {
+  public UserService(
+      UserDataAccess userDataAccess, AuthDataAccess authDataAccess, PasswordHasher passwordHasher) {
     this.userDataAccess = userDataAccess;
     this.authDataAccess = authDataAccess;
+    this.passwordHasher = passwordHasher;
   }
 
   public AuthData registerUser(UserData user) throws ResponseException {
@@ -24,7 +27,7 @@ public class UserService {
       System.out.println("User already exists: " + user.getUsername());
       throw new ResponseException(403, "already taken");
     }
-    String hashedPassword = AuthService.hashPassword(user.getPassword());
+    String hashedPassword = passwordHasher.hash(user.getPassword());
     userDataAccess.createUser(new UserData(user.getUsername(), hashedPassword, user.getEmail()));
     String authToken = AuthService.generateNewToken();
     AuthData authData = new AuthData(user.getUsername(), authToken);
@@ -34,10 +37,16 @@ public class UserService {
   public AuthData loginUser(LoginRequest loginRequest) throws ResponseException {
     System.out.println("Logging in user: " + loginRequest.getUsername());
     UserData user = userDataAccess.getUser(loginRequest.getUsername());
-    if (user == null
-        || !AuthService.verifyPassword(loginRequest.getPassword(), user.getPassword())) {
+    if (user == null || !passwordHasher.matches(loginRequest.getPassword(), user.getPassword())) {
       throw new ResponseException(401, "unauthorized");
     }
+    // The password was hashed with an older cost, so hash it again with the
+    // current one now that we know it.
+    if (passwordHasher.needsRehash(user.getPassword())) {
+      passwordHasher.rehash(
+          loginRequest.getPassword(),
+          (hash) -> userDataAccess.updatePassword(user.getUsername(), hash));
+    }
     String authToken = AuthService.generateNewToken();
     AuthData authData = new AuthData(user.getUsername(), authToken);
     return authDataAccess.createAuth(authData);
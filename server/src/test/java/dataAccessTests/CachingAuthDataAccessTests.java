@@ -0,0 +1,122 @@
+package dataAccessTests;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import dataAccess.CachingAuthDataAccess;
+import dataAccess.MemoryAuthDataAccess;
+import exception.ResponseException;
+import java.util.ArrayList;
+import model.*;
+import org.junit.jupiter.api.*;
+
+// These tests cache an in-memory store, so they do not need a database.
+public class CachingAuthDataAccessTests {
+  // Counts the lookups that would be queries against a real database.
+  private static class CountingAuthDataAccess extends MemoryAuthDataAccess {
+    int reads = 0;
+
+    public AuthData getAuth(String authToken) {
+      reads++;
+      return super.getAuth(authToken);
+    }
+  }
+
+  private CountingAuthDataAccess store;
+  private CachingAuthDataAccess cache;
+  private AuthData auth;
+
+  @BeforeEach
+  public void setup() throws Exception {
+    store = new CountingAuthDataAccess();
+    cache = new CachingAuthDataAccess(store, 60_000, 60_000, 100);
+    auth = cache.createAuth(new AuthData("username", "token"));
+  }
+
+  @Test
+  @DisplayName("Cache Found Tokens")
+  public void cacheFoundTokens() throws Exception {
+    for (var i = 0; i < 5; i++) {
+      assertEquals("username", cache.getAuth("token").getUsername());
+    }
+    assertEquals(0, store.reads, "Created tokens should be served from the cache");
+  }
+
+  @Test
+  @DisplayName("Cache Missing Tokens")
+  public void cacheMissingTokens() throws Exception {
+    for (var i = 0; i < 5; i++) assertNull(cache.getAuth("bad"));
+    assertEquals(1, store.reads, "Missing tokens should only be looked up once");
+
+    cache.createAuth(new AuthData("username", "bad"));
+    assertNotNull(cache.getAuth("bad"), "Creating a token should replace its cached miss");
+  }
+
+  @Test
+  @DisplayName("Invalidate On Delete")
+  public void invalidateOnDelete() throws Exception {
+    cache.getAuth("token");
+    cache.deleteAuth("token");
+    assertNull(cache.getAuth("token"), "Deleted tokens should not be served from the cache");
+
+    cache.createAuth(new AuthData("username", "other"));
+    cache.clear();
+    assertNull(cache.getAuth("other"), "Cleared tokens should not be served from the cache");
+  }
+
+  @Test
+  @DisplayName("Invalidate On Delete During Lookup")
+  public void invalidateOnDeleteDuringLookup() throws Exception {
+    // Deletes each token just as its lookup returns, while the cache is
+    // deciding whether to keep what it read.
+    var deleters = new ArrayList<Thread>();
+    var racingStore =
+        new MemoryAuthDataAccess() {
+          public synchronized AuthData getAuth(String authToken) {
+            var found = super.getAuth(authToken);
+            var deleter =
+                Thread.ofPlatform()
+                    .start(
+                        () -> {
+                          try {
+                            cache.deleteAuth(authToken);
+                          } catch (ResponseException e) {
+                            throw new RuntimeException(e);
+                          }
+                        });
+            deleters.add(deleter);
+            return found;
+          }
+
+          public synchronized void deleteAuth(String authToken) {
+            super.deleteAuth(authToken);
+          }
+        };
+    cache = new CachingAuthDataAccess(racingStore, 60_000, 60_000, 100_000);
+    for (var i = 0; i < 2_000; i++) {
+      var token = "token" + i;
+      racingStore.createAuth(new AuthData("username", token));
+      cache.getAuth(token);
+      deleters.getLast().join();
+      assertNull(cache.getAuth(token), "Deleted tokens should not be served from the cache");
+    }
+  }
+
+  @Test
+  @DisplayName("Expire Tokens")
+  public void expireTokens() throws Exception {
+    cache = new CachingAuthDataAccess(store, 0, 0, 100);
+    cache.getAuth("token");
+    cache.getAuth("token");
+    assertEquals(2, store.reads, "Expired tokens should be looked up again");
+  }
+
+  @Test
+  @DisplayName("Bound Size")
+  public void boundSize() throws Exception {
+    cache = new CachingAuthDataAccess(store, 60_000, 60_000, 10);
+    for (var i = 0; i < 100; i++) cache.getAuth("bad" + i);
+    store.reads = 0;
+    for (var i = 0; i < 100; i++) cache.getAuth("bad" + i);
+    assertTrue(store.reads >= 90, "The cache should not hold more tokens than its limit");
+  }
+}
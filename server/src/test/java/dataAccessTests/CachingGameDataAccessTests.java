@@ -0,0 +1,274 @@
+package dataAccessTests;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import chess.*;
+import dataAccess.CachingGameDataAccess;
+import dataAccess.MemoryGameDataAccess;
+import exception.ResponseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import model.*;
+import org.junit.jupiter.api.*;
+
+// These tests cache an in-memory store, so they do not need a database.
+public class CachingGameDataAccessTests {
+  // Counts the calls that would be queries against a real database, and logs
+  // moves as SQLMoveLogGameDataAccess does.
+  private static class CountingGameDataAccess extends MemoryGameDataAccess {
+    int reads = 0;
+    int writes = 0;
+    List<Integer> appendedPlies = new ArrayList<>();
+    // The ply of a move that fails to append, once.
+    int failAtPly = -1;
+    // When set, appending a move waits for release, having counted down
+    // appending.
+    CountDownLatch appending;
+    CountDownLatch release;
+
+    public GameData getGame(int gameID) {
+      reads++;
+      var game = super.getGame(gameID);
+      if (game == null) return null;
+      // Hand out copies, as a database would.
+      var copy = ChessGame.fromFen(game.getGame().toFen());
+      return new GameData(
+          gameID, game.getWhiteUsername(), game.getBlackUsername(), game.getGameName(), copy);
+    }
+
+    public GameData updateGame(int gameID, GameData game) throws ResponseException {
+      writes++;
+      return super.updateGame(gameID, game);
+    }
+
+    public GameData appendMove(int gameID, GameData game, ChessMove move) throws ResponseException {
+      if (game.getGame().getPly() == failAtPly) {
+        failAtPly = -1;
+        throw new ResponseException(500, "Unable to write");
+      }
+      if (release != null) {
+        appending.countDown();
+        try {
+          release.await();
+        } catch (InterruptedException e) {
+          throw new ResponseException(500, "Interrupted");
+        }
+      }
+      appendedPlies.add(game.getGame().getPly());
+      return super.updateGame(gameID, game);
+    }
+  }
+
+  private CountingGameDataAccess store;
+  private CachingGameDataAccess cache;
+  private GameData gameData;
+
+  @BeforeEach
+  public void setup() throws Exception {
+    store = new CountingGameDataAccess();
+    // Flushed by hand, so the flusher never runs during a test.
+    cache = new CachingGameDataAccess(store, 60_000, 10);
+    gameData = cache.createGame(new GameData(0, "white", "black", "name", new ChessGame()));
+  }
+
+  @AfterEach
+  public void tearDown() {
+    cache.close();
+  }
+
+  private void playMoves(int plies) throws Exception {
+    for (var i = 0; i < plies; i++) {
+      var loaded = cache.getGame(gameData.getGameId());
+      var move = loaded.getGame().legalMoves().iterator().next();
+      loaded.getGame().makeMove(move);
+      cache.appendMove(loaded.getGameId(), loaded, move);
+    }
+  }
+
+  @Test
+  @DisplayName("Read From Cache")
+  public void readFromCache() throws Exception {
+    playMoves(10);
+    assertEquals(0, store.reads, "Cached games should not be read from the store");
+    assertEquals(10, cache.getGame(gameData.getGameId()).getGame().getPly());
+  }
+
+  @Test
+  @DisplayName("Append Moves On Flush")
+  public void appendMovesOnFlush() throws Exception {
+    playMoves(10);
+    assertEquals(List.of(), store.appendedPlies, "Moves should not be written until a flush");
+
+    cache.flush();
+    assertEquals(
+        List.of(1, 2, 3, 4, 5, 6, 7, 8, 9, 10),
+        store.appendedPlies,
+        "Each move should be appended in order");
+    assertEquals(0, store.writes, "Moves should not write the whole game");
+    assertEquals(
+        cache.getGame(gameData.getGameId()).getGame(),
+        store.getGame(gameData.getGameId()).getGame(),
+        "The store should have the latest game");
+
+    cache.flush();
+    assertEquals(10, store.appendedPlies.size(), "Written moves should not be written again");
+  }
+
+  @Test
+  @DisplayName("Retry Failed Writes In Order")
+  public void retryFailedWritesInOrder() throws Exception {
+    playMoves(5);
+    store.failAtPly = 3;
+    cache.flush();
+    assertEquals(List.of(1, 2), store.appendedPlies, "Writes should stop at the failed move");
+
+    playMoves(1);
+    cache.flush();
+    assertEquals(
+        List.of(1, 2, 3, 4, 5, 6),
+        store.appendedPlies,
+        "Failed moves should be retried before newer ones");
+  }
+
+  @Test
+  @DisplayName("Keep Moves Over Stale Update")
+  public void keepMovesOverStaleUpdate() throws Exception {
+    // Read before a move, e.g. by a player joining over HTTP, and written
+    // after it.
+    var stale = cache.getGame(gameData.getGameId());
+    playMoves(1);
+    stale.setWhiteUsername("joined");
+    cache.updateGame(stale.getGameId(), stale);
+
+    var cached = cache.getGame(gameData.getGameId());
+    assertEquals(1, cached.getGame().getPly(), "A stale update should not undo a move");
+    assertEquals("joined", cached.getWhiteUsername(), "A stale update should change the players");
+
+    playMoves(1);
+    cache.flush();
+    assertEquals(List.of(1, 2), store.appendedPlies, "Moves should keep their plies");
+    var stored = store.getGame(gameData.getGameId());
+    assertEquals(2, stored.getGame().getPly());
+    assertEquals("joined", stored.getWhiteUsername());
+  }
+
+  @Test
+  @DisplayName("Keep Resignation Over Stale Update")
+  public void keepResignationOverStaleUpdate() throws Exception {
+    var stale = cache.getGame(gameData.getGameId());
+    var resigned = cache.getGame(gameData.getGameId());
+    resigned.getGame().setResigned(ChessGame.TeamColor.WHITE);
+    cache.updateGame(resigned.getGameId(), resigned);
+    stale.setBlackUsername("joined");
+    cache.updateGame(stale.getGameId(), stale);
+
+    var cached = cache.getGame(gameData.getGameId());
+    assertEquals(ChessGame.TeamColor.WHITE, cached.getGame().getResigned());
+    assertEquals("joined", cached.getBlackUsername());
+  }
+
+  @Test
+  @DisplayName("Coalesce Updates")
+  public void coalesceUpdates() throws Exception {
+    for (var name : List.of("a", "b", "c")) {
+      var loaded = cache.getGame(gameData.getGameId());
+      loaded.setWhiteUsername(name);
+      cache.updateGame(loaded.getGameId(), loaded);
+    }
+    playMoves(1);
+    var resigned = cache.getGame(gameData.getGameId());
+    resigned.setBlackUsername(null);
+    cache.updateGame(resigned.getGameId(), resigned);
+
+    cache.flush();
+    assertEquals(2, store.writes, "Updates in a row should be written once");
+    assertEquals(List.of(1), store.appendedPlies);
+    var stored = store.getGame(gameData.getGameId());
+    assertEquals("c", stored.getWhiteUsername());
+    assertNull(stored.getBlackUsername());
+  }
+
+  @Test
+  @DisplayName("Flush On Close")
+  public void flushOnClose() throws Exception {
+    playMoves(3);
+    cache.close();
+    assertEquals(3, store.getGame(gameData.getGameId()).getGame().getPly());
+  }
+
+  @Test
+  @DisplayName("Return Copies")
+  public void returnCopies() throws Exception {
+    var loaded = cache.getGame(gameData.getGameId());
+    loaded.getGame().makeMove(loaded.getGame().legalMoves().iterator().next());
+    loaded.setWhiteUsername(null);
+
+    var again = cache.getGame(gameData.getGameId());
+    assertEquals(0, again.getGame().getPly(), "Unsaved changes should not leak into the cache");
+    assertEquals("white", again.getWhiteUsername());
+  }
+
+  @Test
+  @DisplayName("List Unflushed Games")
+  public void listUnflushedGames() throws Exception {
+    playMoves(2);
+    var listed = cache.listGames().iterator().next();
+    assertEquals(2, listed.getGame().getPly(), "Listed games should include unflushed moves");
+  }
+
+  @Test
+  @DisplayName("List Games While Flushing")
+  public void listGamesWhileFlushing() throws Exception {
+    playMoves(2);
+    var flushing = holdAppends();
+    var listed = cache.listGames().iterator().next();
+    assertEquals(2, listed.getGame().getPly(), "Listed games should include moves being written");
+    store.release.countDown();
+    flushing.join();
+    assertEquals(List.of(1, 2), store.appendedPlies);
+  }
+
+  @Test
+  @DisplayName("Clear Waits For Flush")
+  public void clearWaitsForFlush() throws Exception {
+    playMoves(2);
+    var flushing = holdAppends();
+    var clearing = Thread.startVirtualThread(this::clearCache);
+    clearing.join(100);
+    assertTrue(clearing.isAlive(), "Clearing should wait for the flush to finish");
+    store.release.countDown();
+    flushing.join();
+    clearing.join();
+    assertEquals(List.of(1, 2), store.appendedPlies);
+    assertTrue(store.listGames().isEmpty(), "Nothing should be written after clearing");
+    assertNull(cache.getGame(gameData.getGameId()));
+  }
+
+  // Starts a flush and waits until it is holding its first move.
+  private Thread holdAppends() throws Exception {
+    store.appending = new CountDownLatch(1);
+    store.release = new CountDownLatch(1);
+    var flushing = Thread.startVirtualThread(cache::flush);
+    store.appending.await();
+    return flushing;
+  }
+
+  private void clearCache() {
+    try {
+      cache.clear();
+    } catch (ResponseException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  @Test
+  @DisplayName("Clear Drops Unflushed Games")
+  public void clearDropsUnflushedGames() throws Exception {
+    playMoves(2);
+    cache.clear();
+    cache.flush();
+    assertEquals(0, store.appendedPlies.size(), "Cleared games should not be written");
+    assertNull(cache.getGame(gameData.getGameId()));
+  }
+}
@@ -0,0 +1,226 @@
+package dataAccessTests;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import dataAccess.ConnectionPool;
+import dataAccess.DataAccessException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.*;
+
+// These tests use fake connections, so they do not need a database.
+public class ConnectionPoolTests {
+  // A fake prepared statement that records whether it was closed.
+  private static class FakeStatement {
+    final String sql;
+    boolean closed = false;
+    final PreparedStatement statement =
+        (PreparedStatement)
+            Proxy.newProxyInstance(
+                PreparedStatement.class.getClassLoader(),
+                new Class<?>[] {PreparedStatement.class},
+                (proxy, method, args) ->
+                    switch (method.getName()) {
+                      case "close" -> {
+                        closed = true;
+                        yield null;
+                      }
+                      case "isClosed" -> closed;
+                      case "hashCode" -> System.identityHashCode(proxy);
+                      case "equals" -> proxy == args[0];
+                      default -> null;
+                    });
+
+    FakeStatement(String sql) {
+      this.sql = sql;
+    }
+  }
+
+  // A fake physical connection that records whether it was closed, and the
+  // statements prepared on it.
+  private static class FakeConnection {
+    boolean closed = false;
+    boolean valid = true;
+    final List<FakeStatement> prepared = new ArrayList<>();
+    final Connection connection =
+        (Connection)
+            Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[] {Connection.class},
+                (proxy, method, args) ->
+                    switch (method.getName()) {
+                      case "close" -> {
+                        closed = true;
+                        yield null;
+                      }
+                      case "isClosed" -> closed;
+                      case "isValid" -> valid;
+                      case "getAutoCommit" -> true;
+                      case "prepareStatement" -> {
+                        var statement = new FakeStatement((String) args[0]);
+                        prepared.add(statement);
+                        yield statement.statement;
+                      }
+                      case "hashCode" -> System.identityHashCode(proxy);
+                      case "equals" -> proxy == args[0];
+                      default -> null;
+                    });
+  }
+
+  private final List<FakeConnection> opened = new ArrayList<>();
+  private ConnectionPool pool;
+
+  private ConnectionPool createPool(int size, long idleTimeoutMillis, long validationMillis) {
+    return createPool(size, idleTimeoutMillis, validationMillis, 0);
+  }
+
+  private ConnectionPool createPool(
+      int size, long idleTimeoutMillis, long validationMillis, int statementCacheSize) {
+    return new ConnectionPool(
+        () -> {
+          var fake = new FakeConnection();
+          opened.add(fake);
+          return fake.connection;
+        },
+        size,
+        100,
+        idleTimeoutMillis,
+        validationMillis,
+        1,
+        statementCacheSize);
+  }
+
+  // The fake statements prepared for the given SQL, ignoring any registered
+  // statements prepared up front.
+  private List<FakeStatement> prepared(String sql) {
+    return opened.get(0).prepared.stream().filter((s) -> s.sql.equals(sql)).toList();
+  }
+
+  @AfterEach
+  public void tearDown() {
+    if (pool != null) pool.close();
+  }
+
+  @Test
+  @DisplayName("Reuse Connections")
+  public void reuseConnections() throws Exception {
+    pool = createPool(2, 60_000, 60_000);
+    for (var i = 0; i < 5; i++) {
+      try (var conn = pool.getConnection()) {
+        assertFalse(conn.isClosed(), "Checked out connections should be open");
+      }
+    }
+    assertEquals(1, opened.size(), "Returned connections should be reused");
+    assertFalse(opened.get(0).closed, "Returned connections should stay open");
+
+    var metrics = pool.getMetrics();
+    assertEquals(5, metrics.acquired());
+    assertEquals(1, metrics.idle());
+    assertEquals(0, metrics.active());
+  }
+
+  @Test
+  @DisplayName("Acquire Timeout")
+  public void acquireTimeout() throws Exception {
+    pool = createPool(1, 60_000, 60_000);
+    var conn = pool.getConnection();
+    assertThrows(
+        DataAccessException.class,
+        () -> pool.getConnection(),
+        "Checking out more connections than the pool size should time out");
+    assertEquals(1, pool.getMetrics().timeouts());
+
+    conn.close();
+    conn.close();
+    try (var again = pool.getConnection()) {
+      assertEquals(1, opened.size(), "The returned connection should be handed out again");
+    }
+    assertThrows(Exception.class, () -> conn.createStatement(), "Returned wrappers are unusable");
+  }
+
+  @Test
+  @DisplayName("Validate Idle Connections")
+  public void validateIdleConnections() throws Exception {
+    pool = createPool(2, 60_000, 0);
+    pool.getConnection().close();
+    opened.get(0).valid = false;
+
+    try (var conn = pool.getConnection()) {
+      assertEquals(2, opened.size(), "Invalid connections should be replaced");
+      assertTrue(opened.get(0).closed, "Invalid connections should be closed");
+    }
+  }
+
+  @Test
+  @DisplayName("Evict Idle Connections")
+  public void evictIdleConnections() throws Exception {
+    pool = createPool(2, 10, 60_000);
+    pool.getConnection().close();
+    Thread.sleep(20);
+
+    try (var conn = pool.getConnection()) {
+      assertEquals(2, opened.size(), "Expired connections should not be reused");
+      assertTrue(opened.get(0).closed, "Expired connections should be closed");
+    }
+    assertEquals(1, pool.getMetrics().destroyed());
+  }
+
+  @Test
+  @DisplayName("Cache Prepared Statements")
+  public void cachePreparedStatements() throws Exception {
+    pool = createPool(1, 60_000, 60_000, 4);
+    var sql = "SELECT 1";
+    for (var i = 0; i < 3; i++) {
+      try (var conn = pool.getConnection();
+          var ps = conn.prepareStatement(sql)) {
+        assertFalse(ps.isClosed());
+      }
+    }
+    assertEquals(1, prepared(sql).size(), "Statements should be prepared once per connection");
+    assertFalse(prepared(sql).get(0).closed, "Cached statements should stay open");
+
+    try (var conn = pool.getConnection();
+        var outer = conn.prepareStatement(sql);
+        var inner = conn.prepareStatement(sql)) {
+      assertNotSame(outer, inner);
+    }
+    assertEquals(2, prepared(sql).size(), "Statements in use should not be handed out twice");
+
+    pool.close();
+    assertTrue(prepared(sql).get(0).closed, "Cached statements should close with the connection");
+  }
+
+  @Test
+  @DisplayName("Statements Hide Physical Connection")
+  public void statementsHidePhysicalConnection() throws Exception {
+    pool = createPool(1, 60_000, 60_000, 4);
+    try (var conn = pool.getConnection();
+        var outer = conn.prepareStatement("SELECT 1");
+        var inner = conn.prepareStatement("SELECT 1")) {
+      assertSame(conn, outer.getConnection(), "Cached statements should return the pooled wrapper");
+      assertSame(conn, inner.getConnection(), "Uncached statements should too");
+      outer.getConnection().close();
+    }
+    assertFalse(opened.get(0).closed, "Closing the wrapper should not close the connection");
+    try (var conn = pool.getConnection()) {
+      assertEquals(1, opened.size(), "The connection should go back to the pool");
+    }
+  }
+
+  @Test
+  @DisplayName("Evict Cached Statements")
+  public void evictCachedStatements() throws Exception {
+    pool = createPool(1, 60_000, 60_000, 1);
+    try (var conn = pool.getConnection()) {
+      conn.prepareStatement("SELECT 1").close();
+      conn.prepareStatement("SELECT 2").close();
+      conn.prepareStatement("SELECT 1").close();
+    }
+    assertEquals(2, prepared("SELECT 1").size(), "Evicted statements should be prepared again");
+    assertTrue(prepared("SELECT 1").get(0).closed, "Evicted statements should be closed");
+    assertFalse(prepared("SELECT 1").get(1).closed);
+  }
+}
@@ -0,0 +1,88 @@
+package dataAccessTests;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import chess.*;
+import dataAccess.SQLMoveLogGameDataAccess;
+import model.*;
+import org.junit.jupiter.api.*;
+
+public class MoveLogGameDataAccessTests extends DataAccessTests {
+  private GameData gameData;
+
+  @BeforeEach
+  public void setup() throws Exception {
+    super.setup();
+    gameDataAccess = new SQLMoveLogGameDataAccess();
+    gameDataAccess.clear();
+    gameData = gameDataAccess.createGame(new GameData(0, null, null, "name", new ChessGame()));
+  }
+
+  // Plays the first legal move until the game ends or the ply limit is hit,
+  // logging each move.
+  private void playMoves(int plies) throws Exception {
+    var game = gameData.getGame();
+    for (var i = 0; i < plies && !game.legalMoves().isEmpty(); i++) {
+      var move = game.legalMoves().iterator().next();
+      game.makeMove(move);
+      gameDataAccess.appendMove(gameData.getGameId(), gameData, move);
+    }
+  }
+
+  @Test
+  @DisplayName("Replay Moves")
+  public void replayMoves() throws Exception {
+    playMoves(5);
+
+    var stored = gameDataAccess.getGame(gameData.getGameId());
+    assertEquals(gameData.getGame(), stored.getGame(), "Replaying moves should restore the game");
+    assertEquals(5, stored.getGame().getPly(), "Replaying moves should restore the ply");
+  }
+
+  @Test
+  @DisplayName("Replay Moves After Snapshot")
+  public void replayMovesAfterSnapshot() throws Exception {
+    playMoves(75);
+
+    var stored = gameDataAccess.getGame(gameData.getGameId());
+    assertEquals(gameData.getGame(), stored.getGame(), "Snapshots should restore the game");
+    assertEquals(
+        gameData.getGame().getPly(), stored.getGame().getPly(), "Snapshots should keep the ply");
+
+    var listed = gameDataAccess.listGames().iterator().next();
+    assertEquals(gameData.getGame(), listed.getGame(), "Listed games should replay moves too");
+  }
+
+  @Test
+  @DisplayName("Retry Append")
+  public void retryAppend() throws Exception {
+    // The 32nd move also brings the snapshot up to date.
+    for (var plies : new int[] {1, 31}) {
+      var game = gameData.getGame();
+      for (var i = 0; i < plies; i++) {
+        var move = game.legalMoves().iterator().next();
+        game.makeMove(move);
+        gameDataAccess.appendMove(gameData.getGameId(), gameData, move);
+        // A flush that is retried after the write succeeded writes it again.
+        gameDataAccess.appendMove(gameData.getGameId(), gameData, move);
+      }
+    }
+
+    var stored = gameDataAccess.getGame(gameData.getGameId());
+    assertEquals(
+        gameData.getGame(), stored.getGame(), "Retried moves should not be replayed twice");
+    assertEquals(32, stored.getGame().getPly());
+  }
+
+  @Test
+  @DisplayName("Update Game Keeps Moves")
+  public void updateGameKeepsMoves() throws Exception {
+    playMoves(3);
+    gameData.setWhiteUsername(null);
+    gameDataAccess.updateGame(gameData.getGameId(), gameData);
+    playMoves(2);
+
+    var stored = gameDataAccess.getGame(gameData.getGameId());
+    assertEquals(gameData.getGame(), stored.getGame(), "Updates should not lose logged moves");
+  }
+}
@@ -0,0 +1,115 @@
+package serverTests;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.*;
+import server.GameExecutor;
+
+public class GameExecutorTests {
+  private GameExecutor executor;
+
+  @BeforeEach
+  public void setup() {
+    executor = new GameExecutor();
+  }
+
+  @AfterEach
+  public void tearDown() {
+    executor.close();
+  }
+
+  @Test
+  @DisplayName("Run Game Tasks In Order")
+  public void runGameTasksInOrder() throws Exception {
+    var order = Collections.synchronizedList(new ArrayList<Integer>());
+    var running = new AtomicInteger();
+    var overlapped = new AtomicInteger();
+    var done = new CountDownLatch(1_000);
+    for (var i = 0; i < 1_000; i++) {
+      var task = i;
+      executor.execute(
+          1,
+          () -> {
+            if (running.incrementAndGet() > 1) overlapped.incrementAndGet();
+            order.add(task);
+            running.decrementAndGet();
+            done.countDown();
+          });
+    }
+    assertTrue(done.await(10, TimeUnit.SECONDS));
+    assertEquals(0, overlapped.get(), "A game's tasks should never run at the same time");
+    for (var i = 0; i < order.size(); i++) {
+      assertEquals(i, order.get(i), "A game's tasks should run in submission order");
+    }
+  }
+
+  @Test
+  @DisplayName("Run Games In Parallel")
+  public void runGamesInParallel() throws Exception {
+    // Game 1's task waits for game 2's, which would deadlock if games shared
+    // a single queue.
+    var gameTwoRan = new CountDownLatch(1);
+    var gameOneDone = new CountDownLatch(1);
+    executor.execute(
+        1,
+        () -> {
+          try {
+            if (gameTwoRan.await(10, TimeUnit.SECONDS)) gameOneDone.countDown();
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+        });
+    executor.execute(2, gameTwoRan::countDown);
+    assertTrue(gameOneDone.await(10, TimeUnit.SECONDS));
+  }
+
+  @Test
+  @DisplayName("Keep Running After Failure")
+  public void keepRunningAfterFailure() throws Exception {
+    List<String> ran = Collections.synchronizedList(new ArrayList<>());
+    var done = new CountDownLatch(1);
+    executor.execute(
+        1,
+        () -> {
+          throw new RuntimeException("failed");
+        });
+    executor.execute(
+        1,
+        () -> {
+          ran.add("after");
+          done.countDown();
+        });
+    assertTrue(done.await(10, TimeUnit.SECONDS));
+    assertEquals(List.of("after"), ran);
+  }
+
+  @Test
+  @DisplayName("Keep Running After Error")
+  public void keepRunningAfterError() throws Exception {
+    List<String> ran = Collections.synchronizedList(new ArrayList<>());
+    var done = new CountDownLatch(1);
+    executor.execute(
+        1,
+        () -> {
+          throw new Error("failed");
+        });
+    executor.execute(
+        1,
+        () -> {
+          ran.add("after");
+          done.countDown();
+        });
+    assertTrue(done.await(10, TimeUnit.SECONDS), "Tasks after an Error should still run");
+    assertEquals(List.of("after"), ran);
+
+    var again = new CountDownLatch(1);
+    executor.execute(1, again::countDown);
+    assertTrue(again.await(10, TimeUnit.SECONDS), "The game should take new tasks");
+  }
+}
@@ -0,0 +1,158 @@
+package serverTests;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import chess.ChessGame.TeamColor;
+import chess.ChessMove;
+import chess.ChessPosition;
+import com.google.gson.Gson;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import javax.websocket.*;
+import model.*;
+import org.junit.jupiter.api.*;
+import server.Server;
+import webSocketMessages.serverMessages.*;
+import webSocketMessages.serverMessages.ServerMessage.ServerMessageType;
+import webSocketMessages.userCommands.*;
+
+// Connects real clients to a running server, one asking for moves and one
+// for whole games, so these tests need the database.
+public class MoveUpdatesTests {
+  private static final Gson gson = new Gson();
+  private static final HttpClient http = HttpClient.newHttpClient();
+
+  private static Server server;
+  private static String url;
+
+  // A WebSocket client that keeps every message it is sent.
+  private static class TestClient extends Endpoint {
+    final BlockingQueue<String> messages = new LinkedBlockingQueue<>();
+    Session session;
+
+    TestClient(String query) throws Exception {
+      var uri = new URI(url.replace("http:", "ws:") + "/connect" + query);
+      session = ContainerProvider.getWebSocketContainer().connectToServer(this, uri);
+      session.addMessageHandler(
+          new MessageHandler.Whole<String>() {
+            public void onMessage(String message) {
+              messages.add(message);
+            }
+          });
+    }
+
+    @Override
+    public void onOpen(Session session, EndpointConfig config) {}
+
+    void send(UserGameCommand command) throws Exception {
+      session.getBasicRemote().sendText(gson.toJson(command));
+    }
+
+    // Waits for the next message of the given type, skipping notifications.
+    String next(ServerMessageType type) throws Exception {
+      while (true) {
+        var message = messages.poll(5, TimeUnit.SECONDS);
+        assertNotNull(message, "Expected a " + type + " message");
+        var messageType = gson.fromJson(message, ServerMessage.class).getServerMessageType();
+        if (messageType == ServerMessageType.NOTIFICATION && type != messageType) continue;
+        assertEquals(type, messageType, message);
+        return message;
+      }
+    }
+  }
+
+  private AuthData white;
+  private AuthData black;
+  private int gameID;
+  private TestClient deltaClient;
+  private TestClient gameClient;
+
+  @BeforeAll
+  public static void startServer() {
+    server = new Server();
+    url = "http://localhost:" + server.run(0);
+  }
+
+  @AfterAll
+  public static void stopServer() {
+    server.stop();
+  }
+
+  @BeforeEach
+  public void setup() throws Exception {
+    fetch("DELETE", "/db", null, null);
+    white =
+        gson.fromJson(fetch("POST", "/user", new UserData("w", "p", "w@x"), null), AuthData.class);
+    black =
+        gson.fromJson(fetch("POST", "/user", new UserData("b", "p", "b@x"), null), AuthData.class);
+    var game = new GameData(0, null, null, "game", null);
+    gameID = gson.fromJson(fetch("POST", "/game", game, white), GameData.class).getGameId();
+    fetch("PUT", "/game", new JoinGameRequest(TeamColor.WHITE, gameID), white);
+    fetch("PUT", "/game", new JoinGameRequest(TeamColor.BLACK, gameID), black);
+
+    deltaClient = new TestClient("?" + MoveMade.PARAMETER + "=" + MoveMade.DELTA);
+    deltaClient.send(new JoinPlayer(white.getAuthToken(), gameID, TeamColor.WHITE));
+    deltaClient.next(ServerMessageType.LOAD_GAME);
+    gameClient = new TestClient("");
+    gameClient.send(new JoinPlayer(black.getAuthToken(), gameID, TeamColor.BLACK));
+    gameClient.next(ServerMessageType.LOAD_GAME);
+  }
+
+  @AfterEach
+  public void tearDown() throws Exception {
+    deltaClient.session.close();
+    gameClient.session.close();
+  }
+
+  @Test
+  @DisplayName("Send Moves Or Games")
+  public void sendMovesOrGames() throws Exception {
+    var move = new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5));
+    deltaClient.send(new MakeMove(white.getAuthToken(), gameID, move));
+
+    var moveMade = gson.fromJson(deltaClient.next(ServerMessageType.MOVE_MADE), MoveMade.class);
+    assertEquals(gameID, moveMade.getGameId());
+    assertEquals(move, moveMade.getMove());
+    assertEquals(1, moveMade.getSequence(), "The sequence should be the game's ply");
+
+    var loadGame = gson.fromJson(gameClient.next(ServerMessageType.LOAD_GAME), LoadGame.class);
+    assertEquals(1, loadGame.getGameData().getGame().getPly());
+
+    var reply = new ChessMove(new ChessPosition(7, 5), new ChessPosition(5, 5));
+    gameClient.send(new MakeMove(black.getAuthToken(), gameID, reply));
+    moveMade = gson.fromJson(deltaClient.next(ServerMessageType.MOVE_MADE), MoveMade.class);
+    assertEquals(2, moveMade.getSequence(), "The sequence should be the game's ply");
+  }
+
+  @Test
+  @DisplayName("Refresh Sends Game")
+  public void refreshSendsGame() throws Exception {
+    var move = new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5));
+    deltaClient.send(new MakeMove(white.getAuthToken(), gameID, move));
+    deltaClient.next(ServerMessageType.MOVE_MADE);
+
+    deltaClient.send(new Refresh(white.getAuthToken(), gameID));
+    var loadGame = gson.fromJson(deltaClient.next(ServerMessageType.LOAD_GAME), LoadGame.class);
+    assertEquals(1, loadGame.getGameData().getGame().getPly());
+  }
+
+  private static String fetch(String method, String path, Object body, AuthData auth)
+      throws Exception {
+    var request =
+        HttpRequest.newBuilder(URI.create(url + path))
+            .method(
+                method,
+                body == null
+                    ? HttpRequest.BodyPublishers.noBody()
+                    : HttpRequest.BodyPublishers.ofString(gson.toJson(body)));
+    if (auth != null) request.header("Authorization", auth.getAuthToken());
+    var response = http.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    assertEquals(200, response.statusCode(), response.body());
+    return response.body();
+  }
+}
@@ -0,0 +1,112 @@
+package serverTests;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.*;
+import server.SessionRegistry;
+
+public class SessionRegistryTests {
+  private SessionRegistry<String> registry;
+
+  @BeforeEach
+  public void setup() {
+    registry = new SessionRegistry<>();
+  }
+
+  @Test
+  @DisplayName("Add And Remove Sessions")
+  public void addAndRemoveSessions() {
+    registry.add(1, "a");
+    registry.add(1, "b");
+    registry.add(2, "a");
+    assertEquals(Set.of("a", "b"), registry.sessions(1));
+    assertEquals(Set.of(1, 2), registry.games("a"));
+
+    registry.remove(1, "b");
+    assertEquals(Set.of("a"), registry.sessions(1));
+    assertEquals(Set.of(), registry.games("b"));
+    assertEquals(Set.of(), registry.sessions(3), "Unknown games should have no sessions");
+  }
+
+  @Test
+  @DisplayName("Remove Disconnected Session")
+  public void removeDisconnectedSession() {
+    registry.add(1, "a");
+    registry.add(2, "a");
+    registry.add(2, "b");
+
+    registry.removeSession("a");
+    assertEquals(Set.of(), registry.sessions(1));
+    assertEquals(Set.of("b"), registry.sessions(2));
+    assertEquals(1, registry.size());
+  }
+
+  @Test
+  @DisplayName("Iterate While Changing")
+  public void iterateWhileChanging() throws Exception {
+    var threads = new ArrayList<Thread>();
+    var start = new CountDownLatch(1);
+    for (var t = 0; t < 4; t++) {
+      var prefix = "t" + t + "-";
+      threads.add(
+          new Thread(
+              () -> {
+                try {
+                  start.await();
+                } catch (InterruptedException e) {
+                  return;
+                }
+                for (var i = 0; i < 5_000; i++) {
+                  registry.add(i % 10, prefix + i);
+                  if (i % 2 == 1) registry.removeSession(prefix + (i - 1));
+                }
+              }));
+    }
+    threads.forEach(Thread::start);
+    start.countDown();
+    while (threads.stream().anyMatch(Thread::isAlive)) {
+      for (var gameID = 0; gameID < 10; gameID++) {
+        var sessions = registry.sessions(gameID);
+        assertDoesNotThrow(() -> sessions.forEach((session) -> {}));
+      }
+    }
+    for (var thread : threads) thread.join();
+
+    assertEquals(4 * 2_500, registry.size(), "No sessions should be lost or left behind");
+    var total = 0;
+    for (var gameID = 0; gameID < 10; gameID++) total += registry.sessions(gameID).size();
+    assertEquals(4 * 2_500, total);
+  }
+
+  @Test
+  @DisplayName("Add And Remove Same Session")
+  public void addAndRemoveSameSession() throws Exception {
+    // Each round, one thread adds a session while another keeps removing it
+    // until the add is done. The session may or may not be left, but never in
+    // a game without the game being in its index.
+    var rounds = 20_000;
+    var added = new AtomicInteger(-1);
+    var remover =
+        new Thread(
+            () -> {
+              for (var i = 0; i < rounds; i++) {
+                while (added.get() < i) registry.removeSession("s" + i);
+              }
+            });
+    remover.start();
+    for (var i = 0; i < rounds; i++) {
+      registry.add(1, "s" + i);
+      added.set(i);
+    }
+    remover.join();
+
+    for (var session : registry.sessions(1)) {
+      assertEquals(Set.of(1), registry.games(session), session + " should be in the index");
+    }
+    assertEquals(registry.sessions(1).size(), registry.size());
+  }
+}
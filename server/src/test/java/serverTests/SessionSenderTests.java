@@ -0,0 +1,142 @@
+package serverTests;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import chess.ChessGame;
+import com.google.gson.Gson;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import model.GameData;
+import org.eclipse.jetty.websocket.api.RemoteEndpoint;
+import org.eclipse.jetty.websocket.api.Session;
+import org.eclipse.jetty.websocket.api.UpgradeRequest;
+import org.eclipse.jetty.websocket.api.WriteCallback;
+import org.junit.jupiter.api.*;
+import server.EncodedMessage;
+import server.SessionSender;
+import webSocketMessages.serverMessages.*;
+
+public class SessionSenderTests {
+  // A fake session whose writes only finish when the test says so.
+  private static class FakeSession {
+    final List<String> sent = new ArrayList<>();
+    final List<WriteCallback> pending = new ArrayList<>();
+    boolean closed = false;
+
+    final RemoteEndpoint remote =
+        (RemoteEndpoint)
+            Proxy.newProxyInstance(
+                RemoteEndpoint.class.getClassLoader(),
+                new Class<?>[] {RemoteEndpoint.class},
+                (proxy, method, args) -> {
+                  if (method.getName().equals("sendString") && args.length == 2) {
+                    sent.add((String) args[0]);
+                    pending.add((WriteCallback) args[1]);
+                  }
+                  return null;
+                });
+
+    final UpgradeRequest request =
+        (UpgradeRequest)
+            Proxy.newProxyInstance(
+                UpgradeRequest.class.getClassLoader(),
+                new Class<?>[] {UpgradeRequest.class},
+                (proxy, method, args) ->
+                    method.getName().equals("getParameterMap") ? Map.of() : null);
+
+    final Session session =
+        (Session)
+            Proxy.newProxyInstance(
+                Session.class.getClassLoader(),
+                new Class<?>[] {Session.class},
+                (proxy, method, args) ->
+                    switch (method.getName()) {
+                      case "getRemote" -> remote;
+                      case "getUpgradeRequest" -> request;
+                      case "isOpen" -> !closed;
+                      case "close", "disconnect" -> {
+                        closed = true;
+                        yield null;
+                      }
+                      case "hashCode" -> System.identityHashCode(proxy);
+                      case "equals" -> proxy == args[0];
+                      default -> null;
+                    });
+
+    // Finishes the oldest write in flight.
+    void finishWrite() {
+      pending.remove(0).writeSuccess();
+    }
+  }
+
+  private static final Gson gson = new Gson();
+  private final List<Session> evicted = new ArrayList<>();
+  private SessionSender sender;
+  private FakeSession client;
+
+  @BeforeEach
+  public void setup() {
+    sender = new SessionSender(3, evicted::add);
+    client = new FakeSession();
+  }
+
+  private static EncodedMessage notification(String text) {
+    return new EncodedMessage(new Notification(text), gson);
+  }
+
+  private static EncodedMessage loadGame(int gameID) {
+    return new EncodedMessage(
+        new LoadGame(new GameData(gameID, null, null, "game", new ChessGame())), gson);
+  }
+
+  @Test
+  @DisplayName("One Write At A Time")
+  public void oneWriteAtATime() {
+    sender.send(client.session, notification("a"));
+    sender.send(client.session, notification("b"));
+    assertEquals(1, client.sent.size(), "Only one write should be in flight");
+    assertEquals(1, sender.queued(client.session));
+
+    client.finishWrite();
+    assertEquals(2, client.sent.size(), "Finishing a write should start the next");
+    assertTrue(client.sent.get(1).contains("b"), "Messages should be sent in order");
+  }
+
+  @Test
+  @DisplayName("Coalesce Load Game")
+  public void coalesceLoadGame() {
+    sender.send(client.session, notification("in flight"));
+    sender.send(client.session, loadGame(1));
+    sender.send(client.session, loadGame(2));
+    sender.send(client.session, loadGame(1));
+    assertEquals(2, sender.queued(client.session), "A newer LoadGame should replace a queued one");
+  }
+
+  @Test
+  @DisplayName("Load Game Replaces Moves")
+  public void loadGameReplacesMoves() {
+    sender.send(client.session, notification("in flight"));
+    sender.send(
+        client.session,
+        new EncodedMessage(new MoveMade(1, null, 1, ChessGame.GameStatus.IN_PROGRESS), gson));
+    sender.send(client.session, loadGame(1));
+    assertEquals(1, sender.queued(client.session), "A LoadGame should replace queued moves");
+  }
+
+  @Test
+  @DisplayName("Evict Slow Session")
+  public void evictSlowSession() {
+    var fast = new FakeSession();
+    for (var i = 0; i < 10; i++) {
+      sender.send(client.session, notification("message " + i));
+      sender.send(fast.session, notification("message " + i));
+      fast.finishWrite();
+    }
+    assertTrue(client.closed, "Sessions that fall too far behind should be disconnected");
+    assertEquals(List.of(client.session), evicted);
+    assertFalse(fast.closed, "Sessions that keep up should not be affected");
+    assertEquals(10, fast.sent.size());
+  }
+}
@@ -0,0 +1,26 @@
+package serverTests;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.*;
+import server.VirtualThreadPool;
+
+public class VirtualThreadPoolTests {
+  @Test
+  @DisplayName("Run Tasks On Virtual Threads")
+  public void runTasksOnVirtualThreads() throws Exception {
+    var pool = new VirtualThreadPool();
+    pool.start();
+    try {
+      var virtual = new CompletableFuture<Boolean>();
+      pool.execute(() -> virtual.complete(Thread.currentThread().isVirtual()));
+      assertTrue(virtual.get(10, TimeUnit.SECONDS), "Tasks should run on virtual threads");
+      assertFalse(pool.isLowOnThreads());
+    } finally {
+      pool.stop();
+    }
+    assertTrue(pool.isStopped());
+  }
+}
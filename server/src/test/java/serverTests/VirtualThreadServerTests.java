@@ -0,0 +1,108 @@
+package serverTests;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import chess.ChessGame.TeamColor;
+import com.google.gson.Gson;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import javax.websocket.*;
+import model.*;
+import org.junit.jupiter.api.*;
+import server.Server;
+import spark.Spark;
+import webSocketMessages.serverMessages.*;
+import webSocketMessages.serverMessages.ServerMessage.ServerMessageType;
+import webSocketMessages.userCommands.*;
+
+// Starts a server as `-Dserver.threads=virtual` would, and talks to it over
+// HTTP and WebSocket, so these tests need the database.
+public class VirtualThreadServerTests {
+  private static final Gson gson = new Gson();
+  private static final HttpClient http = HttpClient.newHttpClient();
+
+  private static Server server;
+  private static String url;
+
+  @BeforeAll
+  public static void startServer() {
+    System.setProperty("server.threads", "virtual");
+    server = new Server();
+    url = "http://localhost:" + server.run(0);
+    // Reports the kind of thread requests are handled on. Spark lets routes
+    // be added once it is running.
+    Spark.get("/test/thread", (request, response) -> Thread.currentThread().isVirtual());
+  }
+
+  @AfterAll
+  public static void stopServer() {
+    server.stop();
+    System.clearProperty("server.threads");
+  }
+
+  @Test
+  @DisplayName("Handle Requests On Virtual Threads")
+  public void handleRequestsOnVirtualThreads() throws Exception {
+    assertEquals("true", fetch("GET", "/test/thread", null, null));
+
+    fetch("DELETE", "/db", null, null);
+    var auth =
+        gson.fromJson(fetch("POST", "/user", new UserData("v", "p", "v@x"), null), AuthData.class);
+    var game = new GameData(0, null, null, "game", null);
+    var gameID = gson.fromJson(fetch("POST", "/game", game, auth), GameData.class).getGameId();
+    fetch("PUT", "/game", new JoinGameRequest(TeamColor.WHITE, gameID), auth);
+
+    var messages = new LinkedBlockingQueue<String>();
+    var session = connect(messages);
+    try {
+      var join = new JoinPlayer(auth.getAuthToken(), gameID, TeamColor.WHITE);
+      session.getBasicRemote().sendText(gson.toJson(join));
+      var message = messages.poll(5, TimeUnit.SECONDS);
+      assertNotNull(message, "Joining should load the game");
+      var type = gson.fromJson(message, ServerMessage.class).getServerMessageType();
+      assertEquals(ServerMessageType.LOAD_GAME, type, message);
+      var loadGame = gson.fromJson(message, LoadGame.class);
+      assertEquals(gameID, loadGame.getGameData().getGameId());
+      assertEquals("v", loadGame.getGameData().getWhiteUsername());
+    } finally {
+      session.close();
+    }
+  }
+
+  private static Session connect(BlockingQueue<String> messages) throws Exception {
+    var uri = new URI(url.replace("http:", "ws:") + "/connect");
+    var endpoint =
+        new Endpoint() {
+          @Override
+          public void onOpen(Session session, EndpointConfig config) {
+            session.addMessageHandler(
+                new MessageHandler.Whole<String>() {
+                  public void onMessage(String message) {
+                    messages.add(message);
+                  }
+                });
+          }
+        };
+    return ContainerProvider.getWebSocketContainer().connectToServer(endpoint, uri);
+  }
+
+  private static String fetch(String method, String path, Object body, AuthData auth)
+      throws Exception {
+    var request =
+        HttpRequest.newBuilder(URI.create(url + path))
+            .method(
+                method,
+                body == null
+                    ? HttpRequest.BodyPublishers.noBody()
+                    : HttpRequest.BodyPublishers.ofString(gson.toJson(body)));
+    if (auth != null) request.header("Authorization", auth.getAuthToken());
+    var response = http.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    assertEquals(200, response.statusCode(), response.body());
+    return response.body();
+  }
+}
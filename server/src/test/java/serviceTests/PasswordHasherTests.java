@@ -0,0 +1,75 @@
+package serviceTests;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import dataAccess.*;
+import exception.ResponseException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import model.*;
+import org.junit.jupiter.api.*;
+import service.*;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+public class PasswordHasherTests {
+  @Test
+  @Order(1)
+  @DisplayName("Hash And Match")
+  public void hashAndMatch() throws Exception {
+    try (var hasher = new PasswordHasher(4, 1, 1)) {
+      var hash = hasher.hash("password");
+      assertTrue(hasher.matches("password", hash), "Password should match its hash");
+      assertFalse(hasher.matches("wrong", hash), "Other passwords should not match");
+    }
+  }
+
+  @Test
+  @Order(2)
+  @DisplayName("Needs Rehash")
+  public void needsRehash() throws Exception {
+    try (var cheap = new PasswordHasher(4, 1, 1);
+        var costly = new PasswordHasher(5, 1, 1)) {
+      var hash = cheap.hash("password");
+      assertFalse(cheap.needsRehash(hash), "Hash made at the current cost should be kept");
+      assertTrue(costly.needsRehash(hash), "Hash made at another cost should be rehashed");
+      assertTrue(costly.matches("password", hash), "Hash made at another cost should match");
+    }
+  }
+
+  @Test
+  @Order(3)
+  @DisplayName("Reject When Saturated")
+  public void rejectWhenSaturated() throws Exception {
+    var release = new CountDownLatch(1);
+    try (var hasher = new PasswordHasher(4, 1, 1)) {
+      // Hold the only thread, and fill the only queue slot.
+      for (int i = 0; i < 2; i++) hasher.rehash("password", (hash) -> release.await());
+      var e = assertThrows(ResponseException.class, () -> hasher.hash("password"));
+      assertEquals(503, e.getStatusCode(), "Should be turned away while the hasher is busy");
+      release.countDown();
+    }
+  }
+
+  @Test
+  @Order(4)
+  @DisplayName("Rehash On Login")
+  public void rehashOnLogin() throws Exception {
+    var users = new MemoryUserDataAccess();
+    var auths = new MemoryAuthDataAccess();
+    try (var cheap = new PasswordHasher(4, 1, 1);
+        var costly = new PasswordHasher(5, 1, 1)) {
+      new UserService(users, auths, cheap)
+          .registerUser(new UserData("john", "password", "john@example.com"));
+      var oldHash = users.getUser("john").getPassword();
+
+      new UserService(users, auths, costly).loginUser(new LoginRequest("john", "password"));
+      var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+      while (users.getUser("john").getPassword().equals(oldHash) && System.nanoTime() < deadline) {
+        Thread.sleep(10);
+      }
+      var newHash = users.getUser("john").getPassword();
+      assertFalse(costly.needsRehash(newHash), "Password should be rehashed at the new cost");
+      assertTrue(costly.matches("password", newHash), "Rehashed password should still match");
+    }
+  }
+}
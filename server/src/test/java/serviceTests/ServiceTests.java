@@ -8,7 +8,10 @@ abstract class ServiceTests {
   protected static UserDataAccess userDataAccess = new MemoryUserDataAccess();
   protected static AuthDataAccess authDataAccess = new MemoryAuthDataAccess();
   protected static GameDataAccess gameDataAccess = new MemoryGameDataAccess();
-  protected static UserService userService = new UserService(userDataAccess, authDataAccess);
+  // Shared by every test, at the lowest cost so that tests run quickly.
+  protected static PasswordHasher passwordHasher = new PasswordHasher(4, 1, 64);
+  protected static UserService userService =
+      new UserService(userDataAccess, authDataAccess, passwordHasher);
   protected static GameService gameService = new GameService(authDataAccess, gameDataAccess);
   protected static DataService dataService =
       new DataService(userDataAccess, authDataAccess, gameDataAccess);
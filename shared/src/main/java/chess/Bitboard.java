@@ -0,0 +1,251 @@
+package chess;
+
+import java.util.Arrays;
+
+/**
+ * A bitboard representation of the pieces on a chessboard.
+ *
+ * <p>Each of the twelve kinds of piece (six piece types for each of the two teams) is stored as a
+ * single 64-bit set where bit {@code n} is set if that piece occupies square {@code n}. Squares are
+ * numbered from 0 (row 1, column 1) to 63 (row 8, column 8), row by row. Occupancy masks for each
+ * team and for the whole board are kept up to date alongside the piece sets so that "is this square
+ * empty" and "does this square hold an enemy" are single bitwise tests.
+ *
+ * @see <a href="https://www.chessprogramming.org/Bitboards">Bitboards</a>
+ */
+public class Bitboard {
+  private static final ChessGame.TeamColor[] COLORS = ChessGame.TeamColor.values();
+  private static final ChessPiece.PieceType[] TYPES = ChessPiece.PieceType.values();
+  private static final int PIECE_TYPES = TYPES.length;
+
+  private final long[] pieces;
+  private final long[] teams;
+  private long occupied;
+  private long key;
+
+  /** Creates an empty bitboard with no pieces on it. */
+  public Bitboard() {
+    pieces = new long[2 * PIECE_TYPES];
+    teams = new long[2];
+    occupied = 0L;
+    key = 0L;
+  }
+
+  /**
+   * Creates a copy of the given bitboard
+   *
+   * @param other the bitboard to copy
+   */
+  public Bitboard(Bitboard other) {
+    pieces = other.pieces.clone();
+    teams = other.teams.clone();
+    occupied = other.occupied;
+    key = other.key;
+  }
+
+  /**
+   * Creates a bitboard holding the same pieces as the given 8x8 array
+   *
+   * @param board the pieces indexed by [row - 1][column - 1]
+   */
+  public Bitboard(ChessPiece[][] board) {
+    this();
+    for (int row = 0; row < 8; row++) {
+      for (int col = 0; col < 8; col++) {
+        var piece = board[row][col];
+        if (piece != null) {
+          addPiece(row * 8 + col, piece.getTeamColor(), piece.getPieceType());
+        }
+      }
+    }
+  }
+
+  /**
+   * @return The square index (0-63) of the given row and column (both 1-8)
+   */
+  public static int square(int row, int col) {
+    return (row - 1) * 8 + (col - 1);
+  }
+
+  /**
+   * @return The square index (0-63) of the given position
+   */
+  public static int square(ChessPosition position) {
+    return square(position.getRow(), position.getColumn());
+  }
+
+  /**
+   * @return The row (1-8) of the given square index
+   */
+  public static int row(int square) {
+    return (square >>> 3) + 1;
+  }
+
+  /**
+   * @return The column (1-8) of the given square index
+   */
+  public static int column(int square) {
+    return (square & 7) + 1;
+  }
+
+  /**
+   * @return The index of the piece set holding pieces of the given team and type
+   */
+  public static int index(ChessGame.TeamColor color, ChessPiece.PieceType type) {
+    return color.ordinal() * PIECE_TYPES + type.ordinal();
+  }
+
+  /**
+   * @return The set of squares holding pieces of the given team and type
+   */
+  public long pieces(ChessGame.TeamColor color, ChessPiece.PieceType type) {
+    return pieces[index(color, type)];
+  }
+
+  /**
+   * @return The set of squares holding pieces of the given team
+   */
+  public long team(ChessGame.TeamColor color) {
+    return teams[color.ordinal()];
+  }
+
+  /**
+   * @return The set of squares holding any piece
+   */
+  public long occupied() {
+    return occupied;
+  }
+
+  /**
+   * @return The Zobrist key of the pieces on the board (see {@link Zobrist}), which does not
+   *     include whose turn it is
+   */
+  public long key() {
+    return key;
+  }
+
+  /**
+   * Finds which piece set (see {@link #index}) occupies a square
+   *
+   * @param square the square to look at
+   * @return The index of the piece set holding the square, or -1 if the square is empty
+   */
+  public int pieceIndexAt(int square) {
+    long bit = 1L << square;
+    if ((occupied & bit) == 0) return -1;
+    for (int i = 0; i < pieces.length; i++) {
+      if ((pieces[i] & bit) != 0) return i;
+    }
+    return -1;
+  }
+
+  /**
+   * Finds the square of a team's king
+   *
+   * @param color the team whose king to find
+   * @return The square index of the king, or -1 if that team has no king
+   */
+  public int kingSquare(ChessGame.TeamColor color) {
+    long king = pieces(color, ChessPiece.PieceType.KING);
+    return king == 0 ? -1 : Long.numberOfTrailingZeros(king);
+  }
+
+  /**
+   * Finds the pieces of a team that attack a square. Rather than generating the attacks of every
+   * enemy piece, this looks outward from the square itself: a knight attacks the square if a knight
+   * on the square would attack it, a rook or queen attacks it if it lies on one of the square's
+   * unblocked rook rays, and so on.
+   *
+   * @param square the square that may be attacked
+   * @param attacker the team whose pieces may be attacking
+   * @param occupied the squares holding any piece, which block sliding pieces
+   * @return The set of squares holding pieces that attack the square
+   */
+  public long attackers(int square, ChessGame.TeamColor attacker, long occupied) {
+    long queens = pieces(attacker, ChessPiece.PieceType.QUEEN);
+    long rooks = pieces(attacker, ChessPiece.PieceType.ROOK) | queens;
+    long bishops = pieces(attacker, ChessPiece.PieceType.BISHOP) | queens;
+    return (Attacks.pawn(ChessGame.other(attacker), square)
+            & pieces(attacker, ChessPiece.PieceType.PAWN))
+        | (Attacks.knight(square) & pieces(attacker, ChessPiece.PieceType.KNIGHT))
+        | (Attacks.king(square) & pieces(attacker, ChessPiece.PieceType.KING))
+        | (Attacks.rook(square, occupied) & rooks)
+        | (Attacks.bishop(square, occupied) & bishops);
+  }
+
+  /**
+   * Determines if any piece of a team attacks a square
+   *
+   * @param square the square that may be attacked
+   * @param attacker the team whose pieces may be attacking
+   * @return True if the square is attacked by the given team
+   */
+  public boolean isAttacked(int square, ChessGame.TeamColor attacker) {
+    return attackers(square, attacker, occupied) != 0;
+  }
+
+  /**
+   * Adds a piece to a square, replacing whatever was there before
+   *
+   * @param square where to add the piece
+   * @param color the team of the piece
+   * @param type the type of the piece
+   */
+  public void addPiece(int square, ChessGame.TeamColor color, ChessPiece.PieceType type) {
+    removePiece(square);
+    long bit = 1L << square;
+    int index = index(color, type);
+    pieces[index] |= bit;
+    teams[color.ordinal()] |= bit;
+    occupied |= bit;
+    key ^= Zobrist.piece(index, square);
+  }
+
+  /**
+   * Removes any piece from a square
+   *
+   * @param square the square to clear
+   */
+  public void removePiece(int square) {
+    int index = pieceIndexAt(square);
+    if (index < 0) return;
+    long mask = ~(1L << square);
+    pieces[index] &= mask;
+    teams[index / PIECE_TYPES] &= mask;
+    occupied &= mask;
+    key ^= Zobrist.piece(index, square);
+  }
+
+  /**
+   * Moves the piece on one square to another, capturing whatever was on the destination
+   *
+   * @param from the square the piece starts on
+   * @param to the square the piece ends on
+   * @param promotion the type the piece becomes, or null if it keeps its type
+   */
+  public void movePiece(int from, int to, ChessPiece.PieceType promotion) {
+    int index = pieceIndexAt(from);
+    if (index < 0) return;
+    var color = COLORS[index / PIECE_TYPES];
+    var type = promotion != null ? promotion : TYPES[index % PIECE_TYPES];
+    removePiece(from);
+    addPiece(to, color, type);
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    if (other instanceof Bitboard) {
+      Bitboard otherBitboard = (Bitboard) other;
+      return key == otherBitboard.key
+          && occupied == otherBitboard.occupied
+          && Arrays.equals(pieces, otherBitboard.pieces);
+    } else {
+      return false;
+    }
+  }
+
+  @Override
+  public int hashCode() {
+    return Long.hashCode(key);
+  }
+}
@@ -8,28 +8,34 @@ package chess;
 public class ChessBoard {
   private ChessPiece[][] board;
 
+  // A bitboard mirror of `board` used for fast occupancy and attack tests. It
+  // is transient (and thus built lazily) because Gson fills in `board` directly
+  // without going through `addPiece()`.
+  private transient Bitboard bitboard;
+
+  /**
+   * Note: the bitboard is kept in sync by {@link #addPiece} and {@link #movePiece}. Writing to the
+   * returned array directly will leave it stale.
+   *
+   * @return The pieces on this board indexed by [row - 1][column - 1]
+   */
   public ChessPiece[][] getBoard() {
     return board;
   }
 
+  /**
+   * @return The bitboard representation of the pieces on this board
+   */
+  public Bitboard getBitboard() {
+    if (bitboard == null) bitboard = new Bitboard(board);
+    return bitboard;
+  }
+
   @Override
   public boolean equals(Object other) {
     if (other instanceof ChessBoard) {
       ChessBoard otherBoard = (ChessBoard) other;
-      for (int row = 0; row < 8; row++) {
-        for (int col = 0; col < 8; col++) {
-          ChessPiece thisPiece = board[row][col];
-          ChessPiece otherPiece = otherBoard.board[row][col];
-          if (thisPiece == null && otherPiece == null) {
-            continue;
-          } else if (thisPiece == null || otherPiece == null) {
-            return false;
-          } else if (!thisPiece.equals(otherPiece)) {
-            return false;
-          }
-        }
-      }
-      return true;
+      return getBitboard().equals(otherBoard.getBitboard());
     } else {
       return false;
     }
@@ -37,13 +43,18 @@ public class ChessBoard {
 
   @Override
   public int hashCode() {
-    int hash = 7;
-    for (ChessPiece[] row : board) {
-      for (ChessPiece piece : row) {
-        hash = 31 * hash + piece.hashCode();
-      }
-    }
-    return hash;
+    return Long.hashCode(zobristKey());
+  }
+
+  /**
+   * Gets a 64-bit key identifying the arrangement of pieces on this board. It is kept up to date as
+   * pieces are added and moved, so reading it is O(1). Equal boards always have equal keys, and
+   * unequal boards have different keys with overwhelming probability.
+   *
+   * @return The Zobrist key of this board (see {@link Zobrist})
+   */
+  public long zobristKey() {
+    return getBitboard().key();
   }
 
   @Override
@@ -76,10 +87,27 @@ public class ChessBoard {
   public ChessBoard(ChessBoard board) {
     this.board = new ChessPiece[8][8];
     for (int row = 0; row < 8; row++) {
-      for (int col = 0; col < 8; col++) {
-        this.board[row][col] = board.board[row][col];
-      }
+      System.arraycopy(board.board[row], 0, this.board[row], 0, 8);
     }
+    if (board.bitboard != null) this.bitboard = new Bitboard(board.bitboard);
+  }
+
+  /**
+   * Creates a board from the piece placement field of a FEN record (see {@link Fen})
+   *
+   * @param fen the FEN record or just its piece placement
+   * @return The board holding those pieces
+   * @throws IllegalArgumentException if the placement is not valid FEN
+   */
+  public static ChessBoard fromFen(CharSequence fen) {
+    return Fen.parseBoard(fen);
+  }
+
+  /**
+   * @return The piece placement field of a FEN record for this board (see {@link Fen})
+   */
+  public String toFen() {
+    return Fen.writePlacement(this, new StringBuilder(Fen.MAX_LENGTH)).toString();
   }
 
   /**
@@ -90,6 +118,14 @@ public class ChessBoard {
    */
   public void addPiece(ChessPosition position, ChessPiece piece) {
     board[position.getRow() - 1][position.getColumn() - 1] = piece;
+    if (bitboard != null) {
+      var square = Bitboard.square(position);
+      if (piece == null) {
+        bitboard.removePiece(square);
+      } else {
+        bitboard.addPiece(square, piece.getTeamColor(), piece.getPieceType());
+      }
+    }
   }
 
   /**
@@ -102,9 +138,38 @@ public class ChessBoard {
     ChessPosition end = move.getEndPosition();
     var piece = board[start.getRow() - 1][start.getColumn() - 1];
     var promotionPieceType = move.getPromotionPiece();
-    if (promotionPieceType != null) piece.setPieceType(promotionPieceType);
+    // Promote by replacing the pawn rather than mutating it, as pieces are
+    // shared between boards (see ChessPiece.of).
+    if (promotionPieceType != null) piece = piece.withPieceType(promotionPieceType);
     board[end.getRow() - 1][end.getColumn() - 1] = piece;
     board[start.getRow() - 1][start.getColumn() - 1] = null;
+    if (bitboard != null) {
+      bitboard.movePiece(Bitboard.square(start), Bitboard.square(end), promotionPieceType);
+    }
+  }
+
+  /**
+   * Takes back a move made with {@link #movePiece}
+   *
+   * @param move the move to take back
+   * @param movedPiece the piece that made the move, as it was before any promotion
+   * @param capturedPiece the piece the move captured, or null if it was not a capture
+   */
+  public void unmovePiece(ChessMove move, ChessPiece movedPiece, ChessPiece capturedPiece) {
+    ChessPosition start = move.getStartPosition();
+    ChessPosition end = move.getEndPosition();
+    board[start.getRow() - 1][start.getColumn() - 1] = movedPiece;
+    board[end.getRow() - 1][end.getColumn() - 1] = capturedPiece;
+    if (bitboard != null) {
+      var endSquare = Bitboard.square(end);
+      bitboard.addPiece(
+          Bitboard.square(start), movedPiece.getTeamColor(), movedPiece.getPieceType());
+      if (capturedPiece == null) {
+        bitboard.removePiece(endSquare);
+      } else {
+        bitboard.addPiece(endSquare, capturedPiece.getTeamColor(), capturedPiece.getPieceType());
+      }
+    }
   }
 
   /**
@@ -124,14 +189,21 @@ public class ChessBoard {
    * @return The position of the piece, or null if the piece is not on the board
    */
   public ChessPosition findPiece(ChessPiece piece) {
-    for (int row = 0; row < 8; row++) {
-      for (int col = 0; col < 8; col++) {
-        if (piece.equals(board[row][col])) {
-          return new ChessPosition(row + 1, col + 1);
-        }
-      }
-    }
-    return null;
+    long squares = getBitboard().pieces(piece.getTeamColor(), piece.getPieceType());
+    if (squares == 0) return null;
+    int square = Long.numberOfTrailingZeros(squares);
+    return ChessPosition.of(square);
+  }
+
+  /**
+   * Determines if a position is attacked by any piece of the given team
+   *
+   * @param position the position that may be attacked
+   * @param attacker the team whose pieces may be attacking
+   * @return True if a piece of the given team could capture a piece at the position
+   */
+  public boolean isSquareAttacked(ChessPosition position, ChessGame.TeamColor attacker) {
+    return getBitboard().isAttacked(Bitboard.square(position), attacker);
   }
 
   /**
@@ -158,25 +230,26 @@ public class ChessBoard {
    */
   public void resetBoard() {
     board = new ChessPiece[8][8];
+    bitboard = null;
     ChessPiece[] black = {
-      new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK),
-      new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT),
-      new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.BISHOP),
-      new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.QUEEN),
-      new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KING),
-      new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.BISHOP),
-      new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT),
-      new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK),
+      ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK),
+      ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT),
+      ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.BISHOP),
+      ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.QUEEN),
+      ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KING),
+      ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.BISHOP),
+      ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT),
+      ChessPiece.of(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK),
     };
     ChessPiece[] white = {
-      new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK),
-      new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT),
-      new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.BISHOP),
-      new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.QUEEN),
-      new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING),
-      new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.BISHOP),
-      new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT),
-      new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK),
+      ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK),
+      ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT),
+      ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.BISHOP),
+      ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.QUEEN),
+      ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING),
+      ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.BISHOP),
+      ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT),
+      ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK),
     };
     board[0] = white;
     board[1] = pawnRow(ChessGame.TeamColor.WHITE);
@@ -192,7 +265,7 @@ public class ChessBoard {
   private ChessPiece[] pawnRow(ChessGame.TeamColor color) {
     ChessPiece[] row = new ChessPiece[8];
     for (int i = 0; i < 8; i++) {
-      row[i] = new ChessPiece(color, ChessPiece.PieceType.PAWN);
+      row[i] = ChessPiece.of(color, ChessPiece.PieceType.PAWN);
     }
     return row;
   }
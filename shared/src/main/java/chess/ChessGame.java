@@ -1,7 +1,6 @@
 package chess;
 
 import java.util.Collection;
-import java.util.HashSet;
 
 /**
  * For a class that can manage a chess game, making moves on a board
@@ -15,6 +14,9 @@ public class ChessGame {
   // The team that forfeited the game. Null if no team has forfeited.
   private TeamColor resigned;
 
+  // The number of moves (by either team) made so far.
+  private int ply;
+
   @Override
   public boolean equals(Object other) {
     if (other instanceof ChessGame) {
@@ -25,6 +27,11 @@ public class ChessGame {
     }
   }
 
+  @Override
+  public int hashCode() {
+    return Long.hashCode(zobristKey());
+  }
+
   public ChessGame() {
     teamTurn = TeamColor.WHITE;
     board = new ChessBoard();
@@ -42,6 +49,52 @@ public class ChessGame {
     this.teamTurn = teamTurn;
   }
 
+  private ChessGame(TeamColor teamTurn) {
+    this.teamTurn = teamTurn;
+  }
+
+  // Creates a game that takes over the given board instead of copying it, for
+  // parsers that have just built the board and hold no other reference to it.
+  static ChessGame withBoard(ChessBoard board, TeamColor teamTurn) {
+    var game = new ChessGame(teamTurn);
+    game.board = board;
+    return game;
+  }
+
+  /**
+   * Creates a game from a FEN record (see {@link Fen})
+   *
+   * @param fen the FEN record, e.g. {@link Fen#START}
+   * @return The game in that position
+   * @throws IllegalArgumentException if the record is not valid FEN
+   */
+  public static ChessGame fromFen(CharSequence fen) {
+    return Fen.parse(fen);
+  }
+
+  /**
+   * @return The FEN record of this game's position (see {@link Fen})
+   */
+  public String toFen() {
+    return Fen.write(this, new StringBuilder(Fen.MAX_LENGTH)).toString();
+  }
+
+  /**
+   * @return The number of moves (by either team) made in this game so far
+   */
+  public int getPly() {
+    return ply;
+  }
+
+  /**
+   * Sets the number of moves made so far, e.g. when restoring a game from storage
+   *
+   * @param ply the number of moves made by either team
+   */
+  public void setPly(int ply) {
+    this.ply = ply;
+  }
+
   public TeamColor getResigned() {
     return resigned;
   }
@@ -66,12 +119,30 @@ public class ChessGame {
     teamTurn = team;
   }
 
+  /**
+   * Gets a 64-bit key identifying the position: the pieces on the board and whose turn it is. The
+   * key is maintained incrementally, so reading it is O(1), which makes it suitable for caching
+   * positions and detecting repeated ones.
+   *
+   * @return The Zobrist key of the position (see {@link Zobrist})
+   */
+  public long zobristKey() {
+    return board.zobristKey() ^ Zobrist.sideToMove(teamTurn);
+  }
+
   /** Enum identifying the 2 possible teams in a chess game */
   public enum TeamColor {
     WHITE,
     BLACK
   }
 
+  /**
+   * @return The team opposing the given team
+   */
+  public static TeamColor other(TeamColor team) {
+    return team == TeamColor.WHITE ? TeamColor.BLACK : TeamColor.WHITE;
+  }
+
   /**
    * Gets a valid moves for a piece at the given location
    *
@@ -79,19 +150,17 @@ public class ChessGame {
    * @return Set of valid moves for requested piece, or null if no piece at startPosition
    */
   public Collection<ChessMove> validMoves(ChessPosition startPosition) {
-    // All the moves that the piece at startPosition can make.
-    var piece = board.getPiece(startPosition);
-    var allMoves = piece.pieceMoves(board, startPosition);
-
-    // All the moves that do not put the team's king in danger.
-    var validMoves = new HashSet<ChessMove>();
-    for (var move : allMoves) {
-      var tempGame = new ChessGame(board, teamTurn);
-      tempGame.getBoard().movePiece(move);
-      if (!tempGame.isInCheck(piece.getTeamColor())) validMoves.add(move);
-    }
+    // Only the moves that do not put the team's king in danger.
+    return MoveGenerator.legalMoves(board, startPosition);
+  }
 
-    return validMoves;
+  /**
+   * Gets every valid move for the team whose turn it is
+   *
+   * @return Set of valid moves for every piece of the team whose turn it is
+   */
+  public Collection<ChessMove> legalMoves() {
+    return MoveGenerator.legalMoves(board, teamTurn);
   }
 
   /**
@@ -110,16 +179,45 @@ public class ChessGame {
       throw new InvalidMoveException("It is not your turn.");
 
     // A move is illegal if the chess piece cannot move there.
-    if (!validMoves(move.getStartPosition()).contains(move))
+    var validMoves = new MoveList(32);
+    MoveGenerator.generateLegalMoves(board, move.getStartPosition(), validMoves);
+    if (!validMoves.contains(Move.fromChessMove(move)))
       throw new InvalidMoveException("This piece cannot make this move.");
 
     // Otherwise, the move is legal, and the piece is moved.
     board.movePiece(move);
-    if (teamTurn == TeamColor.WHITE) {
-      teamTurn = TeamColor.BLACK;
-    } else {
-      teamTurn = TeamColor.WHITE;
-    }
+    teamTurn = other(teamTurn);
+    ply++;
+  }
+
+  /**
+   * Makes a move in place without checking that it is valid. Unlike {@link #makeMove}, the move can
+   * be taken back with {@link #unmakeMove}, which makes trying out moves much cheaper than copying
+   * the whole game for each one.
+   *
+   * @param move chess move to preform
+   * @return A record of the move that can be passed to {@link #unmakeMove}
+   */
+  public MoveUndo makeMoveUnchecked(ChessMove move) {
+    var movedPiece = board.getPiece(move.getStartPosition());
+    var capturedPiece = board.getPiece(move.getEndPosition());
+    var undo = new MoveUndo(move, movedPiece, capturedPiece, teamTurn);
+    board.movePiece(move);
+    teamTurn = other(teamTurn);
+    ply++;
+    return undo;
+  }
+
+  /**
+   * Takes back a move made with {@link #makeMoveUnchecked}. Moves must be taken back in the reverse
+   * order that they were made.
+   *
+   * @param undo the record returned when the move was made
+   */
+  public void unmakeMove(MoveUndo undo) {
+    board.unmovePiece(undo.getMove(), undo.getMovedPiece(), undo.getCapturedPiece());
+    teamTurn = undo.getPreviousTurn();
+    ply--;
   }
 
   /**
@@ -132,33 +230,18 @@ public class ChessGame {
    */
   public boolean isInCheck(TeamColor teamColor) {
     // Find the position of the king.
-    ChessPiece king = new ChessPiece(teamColor, ChessPiece.PieceType.KING);
-    ChessPosition kingPosition = board.findPiece(king);
+    var bitboard = board.getBitboard();
+    int kingSquare = bitboard.kingSquare(teamColor);
 
     // If there is no king, we cannot be in check.
-    if (kingPosition == null) {
-      System.out.println(String.format("No %s found in board:\n%s", king, board));
+    if (kingSquare < 0) {
+      System.out.println(String.format("No %s king found in board:\n%s", teamColor, board));
       return false;
     }
 
-    // For every enemy piece on the board, check if it can move to the same
-    // position as the king (i.e. capture the king).
-    for (int row = 1; row <= 8; row++) {
-      for (int col = 1; col <= 8; col++) {
-        ChessPosition position = new ChessPosition(row, col);
-        ChessPiece piece = board.getPiece(position);
-        if (piece != null && piece.getTeamColor() != teamColor) {
-          for (ChessMove move : piece.pieceMoves(board, position)) {
-            if (move.getEndPosition().equals(kingPosition)) {
-              return true;
-            }
-          }
-        }
-      }
-    }
-
-    // No enemy piece can capture the king.
-    return false;
+    // Check if any enemy piece attacks the king's square (i.e. could capture
+    // the king).
+    return bitboard.isAttacked(kingSquare, other(teamColor));
   }
 
   /**
@@ -170,30 +253,10 @@ public class ChessGame {
    * @return True if the specified team is in checkmate
    */
   public boolean isInCheckmate(TeamColor teamColor) {
-    // If we are not in check, we cannot be in checkmate.
-    if (!isInCheck(teamColor)) return false;
-
-    // For every friendly piece on the board, check if it can move to a position
-    // where we would no longer be in check.
-    for (int row = 1; row <= 8; row++) {
-      for (int col = 1; col <= 8; col++) {
-        ChessPosition position = new ChessPosition(row, col);
-        ChessPiece piece = board.getPiece(position);
-        if (piece != null && piece.getTeamColor() == teamColor) {
-          for (ChessMove move : piece.pieceMoves(board, position)) {
-            ChessGame tempGame = new ChessGame(board, teamTurn);
-            tempGame.getBoard().movePiece(move);
-            if (!tempGame.isInCheck(teamColor)) {
-              return false;
-            }
-          }
-        }
-      }
-    }
-
-    // No friendly piece can move to a position where we would no longer be in
-    // check. Thus, we are in checkmate and have lost the game.
-    return true;
+    // If we are not in check, we cannot be in checkmate. Otherwise, if no
+    // friendly piece can move to a position where we would no longer be in
+    // check, we are in checkmate and have lost the game.
+    return isInCheck(teamColor) && !hasValidMove(teamColor);
   }
 
   /**
@@ -205,22 +268,42 @@ public class ChessGame {
    * @return True if the specified team is in stalemate, otherwise false
    */
   public boolean isInStalemate(TeamColor teamColor) {
-    // For every friendly piece on the board, check if it can move to a
-    // position. If any friendly piece can move, we are not in stalemate.
-    for (int row = 1; row <= 8; row++) {
-      for (int col = 1; col <= 8; col++) {
-        ChessPosition position = new ChessPosition(row, col);
-        ChessPiece piece = board.getPiece(position);
-        if (piece != null && piece.getTeamColor() == teamColor) {
-          if (!validMoves(position).isEmpty()) {
-            return false;
-          }
-        }
-      }
+    // If any friendly piece can move, we are not in stalemate.
+    return !hasValidMove(teamColor);
+  }
+
+  /**
+   * Determines the state of the game for the team whose turn it is. This answers the questions
+   * asked by {@link #isInCheck}, {@link #isInCheckmate} and {@link #isInStalemate} together,
+   * checking for check once and stopping at the first valid move found.
+   *
+   * @return The status of the game for the team whose turn it is
+   */
+  public GameStatus status() {
+    var inCheck = isInCheck(teamTurn);
+    if (hasValidMove(teamTurn)) {
+      return inCheck ? GameStatus.CHECK : GameStatus.IN_PROGRESS;
+    } else {
+      return inCheck ? GameStatus.CHECKMATE : GameStatus.STALEMATE;
     }
+  }
+
+  /** Enum identifying the state of a game from the point of view of the team to move */
+  public enum GameStatus {
+    IN_PROGRESS,
+    CHECK,
+    CHECKMATE,
+    STALEMATE
+  }
 
-    // No friendly piece can make a move. Thus, we are in stalemate.
-    return true;
+  /**
+   * Determines if the given team has at least one valid move
+   *
+   * @param teamColor which team to look for moves for
+   * @return True as soon as any friendly piece is found that can make a valid move
+   */
+  private boolean hasValidMove(TeamColor teamColor) {
+    return MoveGenerator.hasLegalMove(board, teamColor);
   }
 
   /**
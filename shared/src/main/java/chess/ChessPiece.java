@@ -10,27 +10,24 @@ import java.util.Map;
  * <p>Note: You can add to this class, but you may not alter signature of the existing methods.
  */
 public class ChessPiece {
-  private ChessGame.TeamColor pieceColor;
-  private ChessPiece.PieceType type;
+  // One shared instance for each team and piece type, indexed like the piece
+  // sets in Bitboard. setPieceType() leaves them unchanged.
+  private static final ChessPiece[] PIECES;
+
+  static {
+    var colors = ChessGame.TeamColor.values();
+    var types = ChessPiece.PieceType.values();
+    PIECES = new ChessPiece[colors.length * types.length];
+    for (var color : colors) {
+      for (var type : types) {
+        PIECES[Bitboard.index(color, type)] = new ChessPiece(color, type, true);
+      }
+    }
+  }
 
-  private static ChessPosition[] allDirections = {
-    // Up
-    new ChessPosition(1, 0),
-    // Down
-    new ChessPosition(-1, 0),
-    // Left
-    new ChessPosition(0, -1),
-    // Right
-    new ChessPosition(0, 1),
-    // Up and left
-    new ChessPosition(1, -1),
-    // Up and right
-    new ChessPosition(1, 1),
-    // Down and left
-    new ChessPosition(-1, -1),
-    // Down and right
-    new ChessPosition(-1, 1)
-  };
+  private final ChessGame.TeamColor pieceColor;
+  private ChessPiece.PieceType type;
+  private final transient boolean shared;
 
   @Override
   public boolean equals(Object other) {
@@ -70,8 +67,25 @@ public class ChessPiece {
   }
 
   public ChessPiece(ChessGame.TeamColor pieceColor, ChessPiece.PieceType type) {
+    this(pieceColor, type, false);
+  }
+
+  private ChessPiece(ChessGame.TeamColor pieceColor, ChessPiece.PieceType type, boolean shared) {
     this.pieceColor = pieceColor;
     this.type = type;
+    this.shared = shared;
+  }
+
+  /**
+   * Gets a piece without allocating one. The returned piece is shared by every caller, so {@link
+   * #setPieceType} leaves it unchanged (see {@link #withPieceType}).
+   *
+   * @param pieceColor which team the piece belongs to
+   * @param type which type of chess piece the piece is
+   * @return The shared piece of the given team and type
+   */
+  public static ChessPiece of(ChessGame.TeamColor pieceColor, ChessPiece.PieceType type) {
+    return PIECES[Bitboard.index(pieceColor, type)];
   }
 
   /** The various directionerent chess piece options */
@@ -84,15 +98,6 @@ public class ChessPiece {
     PAWN
   }
 
-  /**
-   * @return Whether a piece can move many squares or only one.
-   */
-  private boolean isPieceContinuous() {
-    return (type == ChessPiece.PieceType.QUEEN
-        || type == ChessPiece.PieceType.BISHOP
-        || type == ChessPiece.PieceType.ROOK);
-  }
-
   /**
    * @return Which team this chess piece belongs to
    */
@@ -110,220 +115,42 @@ public class ChessPiece {
   /**
    * Set's which type of chess piece this piece is
    *
+   * <p>Boards hold shared pieces (see {@link #of}), which are used by every board at once, so
+   * changing one would change every piece of its team and type. Calling this on a shared piece,
+   * including any piece returned by {@link ChessBoard#getPiece}, has no effect. To promote a piece
+   * on a board, put the piece it becomes in its place instead:
+   *
+   * <pre>{@code board.addPiece(position, board.getPiece(position).withPieceType(type));}</pre>
+   *
    * @param type The type of chess piece this piece is
+   * @deprecated Use {@link #withPieceType} and {@link ChessBoard#addPiece} instead.
    */
+  @Deprecated
   public void setPieceType(PieceType type) {
+    if (shared) return;
     this.type = type;
   }
 
   /**
-   * Calculates all the positions a chess piece can move to Does not take into account moves that
-   * are illegal due to leaving the king in danger
-   *
-   * @return Collection of valid moves
-   */
-  public Collection<ChessMove> pieceMoves(ChessBoard board, ChessPosition myPosition) {
-    switch (type) {
-      case KING:
-        return allMoves(board, myPosition);
-      case QUEEN:
-        return allMoves(board, myPosition);
-      case BISHOP:
-        return bishopMoves(board, myPosition);
-      case KNIGHT:
-        return knightMoves(board, myPosition);
-      case ROOK:
-        return rookMoves(board, myPosition);
-      case PAWN:
-        return pawnMoves(board, myPosition);
-      default:
-        return new HashSet<ChessMove>();
-    }
-  }
-
-  private Collection<ChessMove> allMoves(ChessBoard board, ChessPosition myPosition) {
-    return generateMoves(allDirections, board, myPosition);
-  }
-
-  private Collection<ChessMove> knightMoves(ChessBoard board, ChessPosition myPosition) {
-    ChessPosition[] directions = {
-      // Up two and right one
-      new ChessPosition(2, 1),
-      // Up one and right two
-      new ChessPosition(1, 2),
-      // Down one and right two
-      new ChessPosition(-1, 2),
-      // Down two and right one
-      new ChessPosition(-2, 1),
-      // Up two and left one
-      new ChessPosition(2, -1),
-      // Up one and left two
-      new ChessPosition(1, -2),
-      // Down one and left two
-      new ChessPosition(-1, -2),
-      // Down two and left one
-      new ChessPosition(-2, -1),
-    };
-    return generateMoves(directions, board, myPosition);
-  }
-
-  private Collection<ChessMove> bishopMoves(ChessBoard board, ChessPosition myPosition) {
-    ChessPosition[] directions = {
-      // Up and left
-      new ChessPosition(1, -1),
-      // Up and right
-      new ChessPosition(1, 1),
-      // Down and left
-      new ChessPosition(-1, -1),
-      // Down and right
-      new ChessPosition(-1, 1)
-    };
-    return generateMoves(directions, board, myPosition);
-  }
-
-  private Collection<ChessMove> rookMoves(ChessBoard board, ChessPosition myPosition) {
-    ChessPosition[] directions = {
-      // Up
-      new ChessPosition(1, 0),
-      // Down
-      new ChessPosition(-1, 0),
-      // Left
-      new ChessPosition(0, -1),
-      // Right
-      new ChessPosition(0, 1)
-    };
-    return generateMoves(directions, board, myPosition);
-  }
-
-  /**
-   * The pawn moves method has to be weird, as pawns have unusual rules.
+   * Gets the piece of this piece's team and the given type, e.g. to promote a pawn. This does not
+   * allocate, and does not change this piece.
    *
-   * <p>A pawn piece moves one square forward, but on its first move, it can move two squares
-   * forward. It captures diagonally one square forward.
-   *
-   * @see {@link https://www.chess.com/terms/chess-pieces}
-   * @param board The current state of the board
-   * @param myPosition The current position of the piece
-   * @return Collection of valid moves
+   * @param type which type of chess piece to get
+   * @return The shared piece of this piece's team and the given type
    */
-  private Collection<ChessMove> pawnMoves(ChessBoard board, ChessPosition myPosition) {
-    // Pawns can only move forward one row (down for black, up for white)
-    var moves = new HashSet<ChessMove>();
-    var oneForward =
-        new ChessPosition(
-            myPosition.getRow() + (pieceColor == ChessGame.TeamColor.WHITE ? 1 : -1),
-            myPosition.getColumn());
-    var oneForwardPiece = board.getPiece(oneForward);
-    if (ChessBoard.isPositionWithinBoard(oneForward) && oneForwardPiece == null)
-      moves.add(new ChessMove(myPosition, oneForward));
-
-    // If it is the pawn's first move, it can move two squares forward
-    if (myPosition.getRow() == (pieceColor == ChessGame.TeamColor.WHITE ? 2 : 7)) {
-      var twoForward =
-          new ChessPosition(
-              myPosition.getRow() + (pieceColor == ChessGame.TeamColor.WHITE ? 2 : -2),
-              myPosition.getColumn());
-      var twoForwardPiece = board.getPiece(twoForward);
-      if (oneForwardPiece == null && twoForwardPiece == null)
-        moves.add(new ChessMove(myPosition, twoForward));
-    }
-
-    // If there is an enemy piece diagonally forward, the pawn can capture it
-    var leftDiagonal =
-        new ChessPosition(
-            myPosition.getRow() + (pieceColor == ChessGame.TeamColor.WHITE ? 1 : -1),
-            myPosition.getColumn() - 1);
-    var rightDiagonal =
-        new ChessPosition(
-            myPosition.getRow() + (pieceColor == ChessGame.TeamColor.WHITE ? 1 : -1),
-            myPosition.getColumn() + 1);
-    if (ChessBoard.isPositionWithinBoard(leftDiagonal)) {
-      var piece = board.getPiece(leftDiagonal);
-      if (piece != null && piece.getTeamColor() != getTeamColor())
-        moves.add(new ChessMove(myPosition, leftDiagonal));
-    }
-    if (ChessBoard.isPositionWithinBoard(rightDiagonal)) {
-      var piece = board.getPiece(rightDiagonal);
-      if (piece != null && piece.getTeamColor() != getTeamColor())
-        moves.add(new ChessMove(myPosition, rightDiagonal));
-    }
-
-    // Add moves for every possible promotion if one of the moves included in `moves` is a promotion
-    var promotionMoves = new HashSet<ChessMove>();
-    var duplicateMoves = new HashSet<ChessMove>();
-    for (var move : moves) {
-      if (move.getEndPosition().getRow() == (pieceColor == ChessGame.TeamColor.WHITE ? 8 : 1)) {
-        promotionMoves.add(
-            new ChessMove(
-                move.getStartPosition(), move.getEndPosition(), ChessPiece.PieceType.BISHOP));
-        promotionMoves.add(
-            new ChessMove(
-                move.getStartPosition(), move.getEndPosition(), ChessPiece.PieceType.KNIGHT));
-        promotionMoves.add(
-            new ChessMove(
-                move.getStartPosition(), move.getEndPosition(), ChessPiece.PieceType.ROOK));
-        promotionMoves.add(
-            new ChessMove(
-                move.getStartPosition(), move.getEndPosition(), ChessPiece.PieceType.QUEEN));
-        duplicateMoves.add(move);
-      }
-    }
-    moves.removeAll(duplicateMoves);
-    moves.addAll(promotionMoves);
-
-    return moves;
+  public ChessPiece withPieceType(PieceType type) {
+    return of(pieceColor, type);
   }
 
   /**
-   * Calculates all the moves that a piece can make given the valid directions it can go
-   * (represented as unit vectors), the current state of the board, and the piece's current
-   * position.
-   *
-   * <p>This method checks if a piece is continuous (isPieceContinuous()) and only keeps moving if
-   * the piece is continuous. Thus, this method can work for both continuous and non-continuous
-   * pieces.
+   * Calculates all the positions a chess piece can move to Does not take into account moves that
+   * are illegal due to leaving the king in danger
    *
-   * @param directions The directions a piece can move in
-   * @param board The current state of the board
-   * @param myPosition The current position of the piece
    * @return Collection of valid moves
    */
-  private Collection<ChessMove> generateMoves(
-      ChessPosition[] directions, ChessBoard board, ChessPosition myPosition) {
-
-    var moves = new HashSet<ChessMove>();
-    for (var direction : directions) {
-      var nextPosition =
-          new ChessPosition(
-              myPosition.getRow() + direction.getRow(),
-              myPosition.getColumn() + direction.getColumn());
-      while (ChessBoard.isPositionWithinBoard(nextPosition)) {
-        var piece = board.getPiece(nextPosition);
-        if (piece == null) {
-          var chessMove = new ChessMove(myPosition, nextPosition);
-          // If there is no piece at the next position, we can move there
-          moves.add(chessMove);
-          if (isPieceContinuous()) {
-            // Keep moving in the same direction until we hit a piece
-            nextPosition =
-                new ChessPosition(
-                    nextPosition.getRow() + direction.getRow(),
-                    nextPosition.getColumn() + direction.getColumn());
-          } else {
-            // Otherwise, if a piece is not continuous, stop moving.
-            break;
-          }
-        } else if (piece.getTeamColor() != getTeamColor()) {
-          // If there is an enemy piece at the next position, we can move there
-          moves.add(new ChessMove(myPosition, nextPosition));
-          // We have to stop moving once we take an enemy piece
-          break;
-        } else {
-          // If there is a friendly piece at the next position, we can't move there
-          break;
-        }
-      }
-    }
-    return moves;
+  public Collection<ChessMove> pieceMoves(ChessBoard board, ChessPosition myPosition) {
+    var moves = new MoveList(32);
+    MoveGenerator.generatePseudoLegalMoves(board, this, myPosition, moves);
+    return moves.toChessMoves(new HashSet<ChessMove>());
   }
 }
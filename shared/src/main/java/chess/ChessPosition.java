@@ -6,8 +6,18 @@ package chess;
  * <p>Note: You can add to this class, but you may not alter signature of the existing methods.
  */
 public class ChessPosition {
-  private int row;
-  private int col;
+  // One shared instance for each square on the board, indexed by square (see
+  // Bitboard). Positions are immutable, so they can be handed out freely.
+  private static final ChessPosition[] SQUARES = new ChessPosition[64];
+
+  static {
+    for (int square = 0; square < 64; square++) {
+      SQUARES[square] = new ChessPosition(Bitboard.row(square), Bitboard.column(square));
+    }
+  }
+
+  private final int row;
+  private final int col;
 
   @Override
   public boolean equals(Object other) {
@@ -37,6 +47,25 @@ public class ChessPosition {
     this.col = col;
   }
 
+  /**
+   * Gets a position without allocating one. Positions on the board are shared instances.
+   *
+   * @param row the row of the position (1 codes for the bottom row)
+   * @param col the column of the position (1 codes for the left column)
+   * @return The position, which is a new instance only if it is off the board
+   */
+  public static ChessPosition of(int row, int col) {
+    if (row < 1 || row > 8 || col < 1 || col > 8) return new ChessPosition(row, col);
+    return SQUARES[Bitboard.square(row, col)];
+  }
+
+  /**
+   * @return The shared position of the given square index (see {@link Bitboard})
+   */
+  public static ChessPosition of(int square) {
+    return SQUARES[square];
+  }
+
   /**
    * @return which row this position is in 1 codes for the bottom row
    */
@@ -0,0 +1,301 @@
+package chess;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads and writes positions in Forsyth-Edwards Notation (FEN), e.g. {@code
+ * rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w - - 0 1}.
+ *
+ * <p>The parser reads straight from a {@link CharSequence} (or an ASCII byte buffer) one character
+ * at a time, and the writer appends straight to a {@link StringBuilder} or byte buffer, so neither
+ * allocates intermediate strings. Pieces and positions come from the shared instances (see {@link
+ * ChessPiece#of} and {@link ChessPosition#of}), so parsing allocates only the new game and board.
+ *
+ * <p>This ruleset has no castling, en passant or fifty-move rule. When parsing, those fields are
+ * checked for the right shape and then ignored, and they may be left out altogether. When writing,
+ * they are written as {@code - - 0}. The full move number is read into and written from the game's
+ * ply (see {@link ChessGame#getPly}).
+ *
+ * @see <a href="https://www.chessprogramming.org/Forsyth-Edwards_Notation">FEN</a>
+ */
+public final class Fen {
+  /** The position every game starts from. */
+  public static final String START = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w - - 0 1";
+
+  /** The longest a FEN record written by this class can be. */
+  public static final int MAX_LENGTH = 64 + 7 + " w - - 0 ".length() + 10;
+
+  // FEN letters of each piece type, in PieceType order (KING, QUEEN, BISHOP, KNIGHT, ROOK, PAWN).
+  private static final char[] LETTERS = {'k', 'q', 'b', 'n', 'r', 'p'};
+  private static final ChessPiece.PieceType[] TYPES = ChessPiece.PieceType.values();
+
+  private Fen() {}
+
+  /**
+   * Parses a FEN record into a new game
+   *
+   * @param fen the FEN record
+   * @return The game in that position
+   * @throws IllegalArgumentException if the record is not valid FEN
+   */
+  public static ChessGame parse(CharSequence fen) {
+    var board = new ChessBoard();
+    int index = parsePlacement(fen, board);
+    var turn = ChessGame.TeamColor.WHITE;
+    int ply = 0;
+    if (index < fen.length()) {
+      index = skipSpace(fen, index);
+      char side = index < fen.length() ? fen.charAt(index++) : ' ';
+      if (side == 'b') {
+        turn = ChessGame.TeamColor.BLACK;
+      } else if (side != 'w') {
+        throw invalid(fen, index - 1, "expected 'w' or 'b' for the side to move");
+      }
+      index = skipField(fen, index, "KQkq-");
+      index = skipField(fen, index, "abcdefgh12345678-");
+      index = skipField(fen, index, "0123456789");
+      int fullmoveStart = index + 1;
+      index = skipField(fen, index, "0123456789");
+      if (index < fen.length()) throw invalid(fen, index, "unexpected trailing characters");
+      if (index > fullmoveStart) ply = ply(fen, fullmoveStart, index, turn);
+    }
+    var game = ChessGame.withBoard(board, turn);
+    game.setPly(ply);
+    return game;
+  }
+
+  /**
+   * Parses a FEN record held as ASCII bytes into a new game
+   *
+   * @param bytes the buffer holding the record
+   * @param offset where the record starts in the buffer
+   * @param length how many bytes the record takes up
+   * @return The game in that position
+   * @throws IllegalArgumentException if the record is not valid FEN
+   */
+  public static ChessGame parse(byte[] bytes, int offset, int length) {
+    return parse(new AsciiSequence(bytes, offset, length));
+  }
+
+  /**
+   * Parses the piece placement field of a FEN record (its first field) into a new board. Anything
+   * after the first space is ignored.
+   *
+   * @param fen the FEN record or piece placement
+   * @return The board holding those pieces
+   * @throws IllegalArgumentException if the placement is not valid FEN
+   */
+  public static ChessBoard parseBoard(CharSequence fen) {
+    var board = new ChessBoard();
+    parsePlacement(fen, board);
+    return board;
+  }
+
+  /**
+   * Appends the FEN record of a game
+   *
+   * @param game the game to write
+   * @param out where to append the record
+   * @return The given builder
+   */
+  public static StringBuilder write(ChessGame game, StringBuilder out) {
+    writePlacement(game.getBoard(), out);
+    out.append(game.getTeamTurn() == ChessGame.TeamColor.BLACK ? " b" : " w");
+    return out.append(" - - 0 ").append(fullmove(game));
+  }
+
+  /**
+   * Appends the piece placement field of a board
+   *
+   * @param board the board to write
+   * @param out where to append the placement
+   * @return The given builder
+   */
+  public static StringBuilder writePlacement(ChessBoard board, StringBuilder out) {
+    var pieces = board.getBoard();
+    for (int row = 7; row >= 0; row--) {
+      int empty = 0;
+      for (int col = 0; col < 8; col++) {
+        var piece = pieces[row][col];
+        if (piece == null) {
+          empty++;
+          continue;
+        }
+        if (empty > 0) out.append((char) ('0' + empty));
+        empty = 0;
+        out.append(letter(piece));
+      }
+      if (empty > 0) out.append((char) ('0' + empty));
+      if (row > 0) out.append('/');
+    }
+    return out;
+  }
+
+  /**
+   * Writes the FEN record of a game as ASCII bytes, without allocating
+   *
+   * @param game the game to write
+   * @param bytes the buffer to write into, which needs {@link #MAX_LENGTH} bytes free
+   * @param offset where to start writing in the buffer
+   * @return The number of bytes written
+   */
+  public static int write(ChessGame game, byte[] bytes, int offset) {
+    int index = offset;
+    var pieces = game.getBoard().getBoard();
+    for (int row = 7; row >= 0; row--) {
+      int empty = 0;
+      for (int col = 0; col < 8; col++) {
+        var piece = pieces[row][col];
+        if (piece == null) {
+          empty++;
+          continue;
+        }
+        if (empty > 0) bytes[index++] = (byte) ('0' + empty);
+        empty = 0;
+        bytes[index++] = (byte) letter(piece);
+      }
+      if (empty > 0) bytes[index++] = (byte) ('0' + empty);
+      if (row > 0) bytes[index++] = '/';
+    }
+    bytes[index++] = ' ';
+    bytes[index++] = (byte) (game.getTeamTurn() == ChessGame.TeamColor.BLACK ? 'b' : 'w');
+    for (int i = 0; i < 7; i++) bytes[index++] = (byte) " - - 0 ".charAt(i);
+    int fullmove = fullmove(game);
+    int digits = 1;
+    for (int rest = fullmove / 10; rest > 0; rest /= 10) digits++;
+    for (int i = digits - 1; i >= 0; i--) {
+      bytes[index + i] = (byte) ('0' + fullmove % 10);
+      fullmove /= 10;
+    }
+    return index + digits - offset;
+  }
+
+  /**
+   * Parses the piece placement field, adding each piece to the board.
+   *
+   * @return The index just past the field
+   */
+  private static int parsePlacement(CharSequence fen, ChessBoard board) {
+    int row = 8;
+    int col = 1;
+    int index = 0;
+    for (; index < fen.length(); index++) {
+      char c = fen.charAt(index);
+      if (c == ' ') break;
+      if (c == '/') {
+        if (col != 9) throw invalid(fen, index, "row " + row + " does not have 8 squares");
+        if (--row < 1) throw invalid(fen, index, "more than 8 rows");
+        col = 1;
+      } else if (c >= '1' && c <= '8') {
+        col += c - '0';
+        if (col > 9) throw invalid(fen, index, "row " + row + " has more than 8 squares");
+      } else {
+        if (col > 8) throw invalid(fen, index, "row " + row + " has more than 8 squares");
+        board.addPiece(ChessPosition.of(row, col++), piece(fen, index, c));
+      }
+    }
+    if (row != 1 || col != 9) throw invalid(fen, index, "the board does not have 8 full rows");
+    return index;
+  }
+
+  /**
+   * Converts the full move number field (which starts at 1 and goes up after each black move) into
+   * a ply.
+   */
+  private static int ply(CharSequence fen, int start, int end, ChessGame.TeamColor turn) {
+    if (end - start > 9) throw invalid(fen, start, "full move number is too large");
+    int fullmove = 0;
+    for (int i = start; i < end; i++) fullmove = fullmove * 10 + (fen.charAt(i) - '0');
+    if (fullmove < 1) throw invalid(fen, start, "full move number must be at least 1");
+    return 2 * (fullmove - 1) + (turn == ChessGame.TeamColor.BLACK ? 1 : 0);
+  }
+
+  /**
+   * @return The full move number of a game, which starts at 1 and goes up after each black move
+   */
+  private static int fullmove(ChessGame game) {
+    return game.getPly() / 2 + 1;
+  }
+
+  /**
+   * @return The piece a FEN letter stands for (upper case for white, lower case for black)
+   */
+  private static ChessPiece piece(CharSequence fen, int index, char c) {
+    var color = c < 'a' ? ChessGame.TeamColor.WHITE : ChessGame.TeamColor.BLACK;
+    char lower = (char) (c | 0x20);
+    for (int i = 0; i < LETTERS.length; i++) {
+      if (LETTERS[i] == lower) return ChessPiece.of(color, TYPES[i]);
+    }
+    throw invalid(fen, index, "'" + c + "' is not a piece");
+  }
+
+  /**
+   * @return The FEN letter of a piece
+   */
+  private static char letter(ChessPiece piece) {
+    char letter = LETTERS[piece.getPieceType().ordinal()];
+    return piece.getTeamColor() == ChessGame.TeamColor.WHITE ? (char) (letter - 0x20) : letter;
+  }
+
+  /**
+   * Skips an optional field made up only of the given characters.
+   *
+   * @return The index just past the field, or the end of the record if the field is missing
+   */
+  private static int skipField(CharSequence fen, int index, String allowed) {
+    if (index >= fen.length()) return index;
+    index = skipSpace(fen, index);
+    int start = index;
+    while (index < fen.length() && fen.charAt(index) != ' ') {
+      if (allowed.indexOf(fen.charAt(index)) < 0) {
+        throw invalid(fen, index, "unexpected '" + fen.charAt(index) + "'");
+      }
+      index++;
+    }
+    if (index == start) throw invalid(fen, index, "empty field");
+    return index;
+  }
+
+  private static int skipSpace(CharSequence fen, int index) {
+    if (fen.charAt(index) != ' ') throw invalid(fen, index, "expected a space");
+    return index + 1;
+  }
+
+  private static IllegalArgumentException invalid(CharSequence fen, int index, String reason) {
+    return new IllegalArgumentException(
+        String.format("Invalid FEN at character %d (%s): %s", index, reason, fen));
+  }
+
+  /** A read-only view of ASCII bytes as characters, so bytes can be parsed without decoding. */
+  private static final class AsciiSequence implements CharSequence {
+    private final byte[] bytes;
+    private final int offset;
+    private final int length;
+
+    AsciiSequence(byte[] bytes, int offset, int length) {
+      this.bytes = bytes;
+      this.offset = offset;
+      this.length = length;
+    }
+
+    @Override
+    public int length() {
+      return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+      return (char) (bytes[offset + index] & 0xff);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+      return new AsciiSequence(bytes, offset + start, end - start);
+    }
+
+    @Override
+    public String toString() {
+      return new String(bytes, offset, length, StandardCharsets.US_ASCII);
+    }
+  }
+}
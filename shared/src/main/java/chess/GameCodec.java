@@ -0,0 +1,115 @@
+package chess;
+
+/**
+ * Packs a {@link ChessGame} into {@value #SIZE} bytes, for storing games and sending them to
+ * clients far more compactly than their JSON form.
+ *
+ * <p>The first 32 bytes hold the board, two squares per byte in square order (see {@link
+ * Bitboard}): the low nibble holds the even square and the high nibble the odd one. Each nibble is
+ * 0 for an empty square, or the piece's index (see {@link Bitboard#index}) plus one. The last byte
+ * holds flags: bit 0 is set if it is black's turn, and bits 1-2 hold the team that resigned (0 for
+ * neither, otherwise its ordinal plus one).
+ *
+ * <p>Encoding writes into a caller-supplied buffer and allocates nothing. Decoding allocates only
+ * the new game and board, as pieces and positions are the shared instances (see {@link
+ * ChessPiece#of} and {@link ChessPosition#of}).
+ */
+public final class GameCodec {
+  /** The number of bytes an encoded game takes up. */
+  public static final int SIZE = 33;
+
+  private static final int FLAGS = 32;
+  private static final int BLACK_TO_MOVE = 1;
+  private static final int RESIGNED_SHIFT = 1;
+
+  private static final ChessGame.TeamColor[] COLORS = ChessGame.TeamColor.values();
+  private static final ChessPiece.PieceType[] TYPES = ChessPiece.PieceType.values();
+
+  private GameCodec() {}
+
+  /**
+   * Encodes a game into a new array
+   *
+   * @param game the game to encode
+   * @return The {@value #SIZE} byte encoding
+   */
+  public static byte[] encode(ChessGame game) {
+    var bytes = new byte[SIZE];
+    encode(game, bytes, 0);
+    return bytes;
+  }
+
+  /**
+   * Encodes a game into a buffer, without allocating
+   *
+   * @param game the game to encode
+   * @param bytes the buffer to write into, which needs {@value #SIZE} bytes free
+   * @param offset where to start writing in the buffer
+   */
+  public static void encode(ChessGame game, byte[] bytes, int offset) {
+    var pieces = game.getBoard().getBoard();
+    for (int row = 0; row < 8; row++) {
+      for (int col = 0; col < 8; col += 2) {
+        bytes[offset + row * 4 + col / 2] =
+            (byte) (nibble(pieces[row][col]) | (nibble(pieces[row][col + 1]) << 4));
+      }
+    }
+    int flags = game.getTeamTurn() == ChessGame.TeamColor.BLACK ? BLACK_TO_MOVE : 0;
+    var resigned = game.getResigned();
+    if (resigned != null) flags |= (resigned.ordinal() + 1) << RESIGNED_SHIFT;
+    bytes[offset + FLAGS] = (byte) flags;
+  }
+
+  /**
+   * Decodes a game
+   *
+   * @param bytes the buffer holding the encoding
+   * @param offset where the encoding starts in the buffer
+   * @return The decoded game
+   * @throws IllegalArgumentException if the bytes are not a valid encoding
+   */
+  public static ChessGame decode(byte[] bytes, int offset) {
+    if (bytes.length - offset < SIZE) {
+      throw new IllegalArgumentException(
+          String.format("Expected %d bytes but got %d", SIZE, bytes.length - offset));
+    }
+    var board = new ChessBoard();
+    for (int square = 0; square < 64; square++) {
+      int nibble = (bytes[offset + square / 2] >>> ((square & 1) * 4)) & 0xf;
+      if (nibble == 0) continue;
+      if (nibble > COLORS.length * TYPES.length) {
+        throw new IllegalArgumentException("Invalid piece " + nibble + " on square " + square);
+      }
+      int index = nibble - 1;
+      board.addPiece(
+          ChessPosition.of(square),
+          ChessPiece.of(COLORS[index / TYPES.length], TYPES[index % TYPES.length]));
+    }
+    int flags = bytes[offset + FLAGS];
+    var turn = (flags & BLACK_TO_MOVE) != 0 ? ChessGame.TeamColor.BLACK : ChessGame.TeamColor.WHITE;
+    var game = ChessGame.withBoard(board, turn);
+    int resigned = (flags >>> RESIGNED_SHIFT) & 0x3;
+    if (resigned > COLORS.length) throw new IllegalArgumentException("Invalid flags " + flags);
+    if (resigned != 0) game.setResigned(COLORS[resigned - 1]);
+    return game;
+  }
+
+  /**
+   * Decodes a game from the start of an array
+   *
+   * @param bytes the encoding
+   * @return The decoded game
+   * @throws IllegalArgumentException if the bytes are not a valid encoding
+   */
+  public static ChessGame decode(byte[] bytes) {
+    return decode(bytes, 0);
+  }
+
+  /**
+   * @return The nibble encoding a square's piece, or 0 if it is empty
+   */
+  private static int nibble(ChessPiece piece) {
+    if (piece == null) return 0;
+    return Bitboard.index(piece.getTeamColor(), piece.getPieceType()) + 1;
+  }
+}
@@ -0,0 +1,100 @@
+package chess;
+
+/**
+ * Packs a chess move into a single {@code int} so that move generators can produce moves without
+ * allocating a {@link ChessMove} (and its two {@link ChessPosition}s) for each one.
+ *
+ * <p>The layout, from the least significant bit, is:
+ *
+ * <ul>
+ *   <li>bits 0-5: the square the piece starts on (see {@link Bitboard})
+ *   <li>bits 6-11: the square the piece ends on
+ *   <li>bits 12-14: the piece type promoted to, as its ordinal plus one, or 0 for no promotion
+ *   <li>bit 15: set if the move captures a piece
+ * </ul>
+ *
+ * <p>Every move fits in the low 16 bits, so moves can also be stored as {@code short}s.
+ */
+public final class Move {
+  /** Set on moves that capture an enemy piece. */
+  public static final int CAPTURE = 1 << 15;
+
+  private static final ChessPiece.PieceType[] PIECE_TYPES = ChessPiece.PieceType.values();
+
+  private Move() {}
+
+  /**
+   * Packs a move into an int
+   *
+   * @param from the square the piece starts on
+   * @param to the square the piece ends on
+   * @param promotion the piece type promoted to, or null if the move is not a promotion
+   * @param flags any flags (such as {@link #CAPTURE}) to set on the move
+   * @return The packed move
+   */
+  public static int encode(int from, int to, ChessPiece.PieceType promotion, int flags) {
+    int promotionBits = promotion == null ? 0 : promotion.ordinal() + 1;
+    return from | (to << 6) | (promotionBits << 12) | flags;
+  }
+
+  /**
+   * @return The square the piece starts on
+   */
+  public static int from(int move) {
+    return move & 0x3f;
+  }
+
+  /**
+   * @return The square the piece ends on
+   */
+  public static int to(int move) {
+    return (move >>> 6) & 0x3f;
+  }
+
+  /**
+   * @return The piece type promoted to, or null if the move is not a promotion
+   */
+  public static ChessPiece.PieceType promotion(int move) {
+    int promotionBits = (move >>> 12) & 0x7;
+    return promotionBits == 0 ? null : PIECE_TYPES[promotionBits - 1];
+  }
+
+  /**
+   * @return Whether the move captures an enemy piece
+   */
+  public static boolean isCapture(int move) {
+    return (move & CAPTURE) != 0;
+  }
+
+  /**
+   * Unpacks a move into a {@link ChessMove}
+   *
+   * @param move the packed move
+   * @return The equivalent ChessMove
+   */
+  public static ChessMove toChessMove(int move) {
+    return new ChessMove(ChessPosition.of(from(move)), ChessPosition.of(to(move)), promotion(move));
+  }
+
+  /**
+   * Packs a {@link ChessMove} into an int. The move carries no flags, as a ChessMove does not know
+   * whether it is a capture.
+   *
+   * @param move the move to pack
+   * @return The packed move
+   */
+  public static int fromChessMove(ChessMove move) {
+    return encode(
+        Bitboard.square(move.getStartPosition()),
+        Bitboard.square(move.getEndPosition()),
+        move.getPromotionPiece(),
+        0);
+  }
+
+  /**
+   * @return The move with its flags cleared, for comparing moves by squares and promotion only
+   */
+  public static int withoutFlags(int move) {
+    return move & (CAPTURE - 1);
+  }
+}
@@ -0,0 +1,315 @@
+package chess;
+
+import java.util.Collection;
+import java.util.HashSet;
+
+/**
+ * Generates legal moves directly, without trying each move out and asking whether it leaves the
+ * king in check.
+ *
+ * <p>Before generating any moves, the generator works out which enemy pieces give check and which
+ * friendly pieces are pinned to their king. With that information every move can be judged on the
+ * spot:
+ *
+ * <ul>
+ *   <li>The king may move to any square that no enemy piece attacks once the king has left its
+ *       current square (so it cannot step backwards along a checking ray).
+ *   <li>In double check, only the king may move.
+ *   <li>In single check, other pieces may only capture the checking piece or block its ray.
+ *   <li>A pinned piece may only move along the line between its king and the pinning piece.
+ * </ul>
+ *
+ * @see <a href="https://www.chessprogramming.org/Move_Generation#Legal">Legal Move Generation</a>
+ */
+public final class MoveGenerator {
+  // The piece types a pawn can be promoted to.
+  private static final ChessPiece.PieceType[] PROMOTION_PIECES = {
+    ChessPiece.PieceType.BISHOP,
+    ChessPiece.PieceType.KNIGHT,
+    ChessPiece.PieceType.ROOK,
+    ChessPiece.PieceType.QUEEN
+  };
+
+  private static final ChessPiece.PieceType[] PIECE_TYPES = ChessPiece.PieceType.values();
+
+  private MoveGenerator() {}
+
+  /**
+   * Generates every legal move for a team
+   *
+   * @param board the board to generate moves on
+   * @param team the team to generate moves for
+   * @return The legal moves of every piece on the team
+   */
+  public static Collection<ChessMove> legalMoves(ChessBoard board, ChessGame.TeamColor team) {
+    var moves = new MoveList();
+    generateLegalMoves(board, team, moves);
+    return moves.toChessMoves(new HashSet<ChessMove>());
+  }
+
+  /**
+   * Generates the legal moves of a single piece
+   *
+   * @param board the board to generate moves on
+   * @param position the position of the piece to generate moves for
+   * @return The legal moves of the piece, or null if there is no piece at the position
+   */
+  public static Collection<ChessMove> legalMoves(ChessBoard board, ChessPosition position) {
+    var piece = board.getPiece(position);
+    if (piece == null) return null;
+    var moves = new MoveList();
+    generateLegalMoves(board, position, moves);
+    return moves.toChessMoves(new HashSet<ChessMove>());
+  }
+
+  /**
+   * Appends every legal move for a team to a list of packed moves, without allocating
+   *
+   * @param board the board to generate moves on
+   * @param team the team to generate moves for
+   * @param moves the list to append the moves to
+   */
+  public static void generateLegalMoves(
+      ChessBoard board, ChessGame.TeamColor team, MoveList moves) {
+    generate(board.getBitboard(), team, ~0L, moves);
+  }
+
+  /**
+   * Appends the legal moves of a single piece to a list of packed moves, without allocating
+   *
+   * @param board the board to generate moves on
+   * @param position the position of the piece to generate moves for
+   * @param moves the list to append the moves to (left unchanged if there is no piece there)
+   */
+  public static void generateLegalMoves(ChessBoard board, ChessPosition position, MoveList moves) {
+    var piece = board.getPiece(position);
+    if (piece == null) return;
+    generate(board.getBitboard(), piece.getTeamColor(), 1L << Bitboard.square(position), moves);
+  }
+
+  /**
+   * Determines if a team has at least one legal move, stopping as soon as one is found
+   *
+   * @param board the board to look for moves on
+   * @param team the team to look for moves for
+   * @return True if the team has a legal move
+   */
+  public static boolean hasLegalMove(ChessBoard board, ChessGame.TeamColor team) {
+    return generate(board.getBitboard(), team, ~0L, null);
+  }
+
+  /**
+   * Appends the moves a piece could make, ignoring whether they leave its king in check, to a list
+   * of packed moves. The piece does not have to be on the board.
+   *
+   * @param board the board to generate moves on
+   * @param piece the piece to generate moves for
+   * @param position the position to generate moves from
+   * @param moves the list to append the moves to
+   */
+  public static void generatePseudoLegalMoves(
+      ChessBoard board, ChessPiece piece, ChessPosition position, MoveList moves) {
+    var bitboard = board.getBitboard();
+    var us = piece.getTeamColor();
+    var type = piece.getPieceType();
+    int square = Bitboard.square(position);
+    addMoves(
+        moves,
+        square,
+        pseudoLegalTargets(bitboard, us, type, square),
+        bitboard.team(ChessGame.other(us)),
+        isPromotion(us, type, square));
+  }
+
+  /**
+   * Generates the legal moves of the given team's pieces that stand on the given squares.
+   *
+   * @param bitboard the position to generate moves in
+   * @param us the team to generate moves for
+   * @param from the squares whose pieces to generate moves for
+   * @param moves the list to add moves to, or null to stop at the first legal move
+   * @return True if any legal move was found
+   */
+  private static boolean generate(
+      Bitboard bitboard, ChessGame.TeamColor us, long from, MoveList moves) {
+    var them = ChessGame.other(us);
+    long occupied = bitboard.occupied();
+    long own = bitboard.team(us);
+    int king = bitboard.kingSquare(us);
+    var found = false;
+
+    // Without a king, nothing can be pinned or in check, so every move is legal.
+    if (king < 0) {
+      return generatePieces(bitboard, us, own & from, ~own, -1, 0L, moves);
+    }
+
+    // The king may go anywhere it would not be attacked. Take it off the board
+    // while checking, so that sliders attacking it also attack the squares
+    // behind it.
+    long kingBit = 1L << king;
+    if ((from & kingBit) != 0) {
+      long targets = Attacks.king(king) & ~own;
+      while (targets != 0) {
+        int target = Long.numberOfTrailingZeros(targets);
+        targets &= targets - 1;
+        if (bitboard.attackers(target, them, occupied ^ kingBit) == 0) {
+          if (moves == null) return true;
+          addMoves(moves, king, 1L << target, bitboard.team(them), false);
+          found = true;
+        }
+      }
+    }
+
+    // In double check, only the king can move. In single check, other pieces
+    // must capture the checking piece or step between it and the king.
+    long checkers = bitboard.attackers(king, them, occupied);
+    long evasions = ~own;
+    if (checkers != 0) {
+      if ((checkers & (checkers - 1)) != 0) return found;
+      int checker = Long.numberOfTrailingZeros(checkers);
+      evasions = checkers | Attacks.between(king, checker);
+    }
+
+    // A piece is pinned if it is the only piece between its king and an enemy
+    // slider that could otherwise reach the king.
+    long queens = bitboard.pieces(them, ChessPiece.PieceType.QUEEN);
+    long snipers =
+        (Attacks.rook(king, 0L) & (bitboard.pieces(them, ChessPiece.PieceType.ROOK) | queens))
+            | (Attacks.bishop(king, 0L)
+                & (bitboard.pieces(them, ChessPiece.PieceType.BISHOP) | queens));
+    long pinned = 0L;
+    while (snipers != 0) {
+      int sniper = Long.numberOfTrailingZeros(snipers);
+      snipers &= snipers - 1;
+      long blockers = Attacks.between(king, sniper) & occupied;
+      if (blockers != 0 && (blockers & (blockers - 1)) == 0) pinned |= blockers & own;
+    }
+
+    return generatePieces(bitboard, us, own & ~kingBit & from, evasions, king, pinned, moves)
+        || found;
+  }
+
+  /**
+   * Generates the moves of every non-king piece on the given squares.
+   *
+   * @param bitboard the position to generate moves in
+   * @param us the team to generate moves for
+   * @param from the squares whose pieces to generate moves for
+   * @param evasions the only squares a piece may move to (all non-friendly squares if not in check)
+   * @param king the square of our king, or -1 if we have no king (in which case it is treated like
+   *     any other piece)
+   * @param pinned the squares of our pieces that are pinned to our king
+   * @param moves the list to add moves to, or null to stop at the first legal move
+   * @return True if any legal move was found
+   */
+  private static boolean generatePieces(
+      Bitboard bitboard,
+      ChessGame.TeamColor us,
+      long from,
+      long evasions,
+      int king,
+      long pinned,
+      MoveList moves) {
+    var found = false;
+    while (from != 0) {
+      int square = Long.numberOfTrailingZeros(from);
+      from &= from - 1;
+      var type = typeAt(bitboard, us, square);
+
+      long targets = pseudoLegalTargets(bitboard, us, type, square) & evasions;
+      if ((pinned & (1L << square)) != 0) targets &= Attacks.line(king, square);
+      if (targets == 0) continue;
+      if (moves == null) return true;
+      addMoves(
+          moves,
+          square,
+          targets,
+          bitboard.team(ChessGame.other(us)),
+          isPromotion(us, type, square));
+      found = true;
+    }
+    return found;
+  }
+
+  /**
+   * Calculates the squares a piece can move to without considering whether the move would leave its
+   * king in check.
+   *
+   * @param bitboard the position to generate moves in
+   * @param us the team of the piece
+   * @param type the type of the piece
+   * @param square the square the piece is on
+   * @return The set of squares the piece can move to
+   */
+  private static long pseudoLegalTargets(
+      Bitboard bitboard, ChessGame.TeamColor us, ChessPiece.PieceType type, int square) {
+    if (type == ChessPiece.PieceType.PAWN) return pawnTargets(bitboard, us, square);
+    return Attacks.attacks(type, us, square, bitboard.occupied()) & ~bitboard.team(us);
+  }
+
+  /**
+   * @return Whether every move of the given piece is a promotion (i.e. it is a pawn one step away
+   *     from the last row)
+   */
+  private static boolean isPromotion(
+      ChessGame.TeamColor us, ChessPiece.PieceType type, int square) {
+    return type == ChessPiece.PieceType.PAWN
+        && Bitboard.row(square) == (us == ChessGame.TeamColor.WHITE ? 7 : 2);
+  }
+
+  /**
+   * Adds a move from one square to every square in a set of target squares.
+   *
+   * @param moves the list to add the moves to
+   * @param from the square the piece starts on
+   * @param targets the set of squares the piece can move to
+   * @param enemy the squares holding enemy pieces, used to flag captures
+   * @param promotion whether each move should be added once for every promotion piece
+   */
+  private static void addMoves(
+      MoveList moves, int from, long targets, long enemy, boolean promotion) {
+    while (targets != 0) {
+      int to = Long.numberOfTrailingZeros(targets);
+      targets &= targets - 1;
+      int flags = (enemy & (1L << to)) != 0 ? Move.CAPTURE : 0;
+      if (promotion) {
+        for (var promotionPiece : PROMOTION_PIECES) {
+          moves.add(Move.encode(from, to, promotionPiece, flags));
+        }
+      } else {
+        moves.add(Move.encode(from, to, null, flags));
+      }
+    }
+  }
+
+  /**
+   * Calculates the squares a pawn can move to: one square forward if it is empty, two squares
+   * forward from its starting row if both are empty, and diagonally forward onto enemy pieces.
+   */
+  private static long pawnTargets(Bitboard bitboard, ChessGame.TeamColor us, int square) {
+    var white = us == ChessGame.TeamColor.WHITE;
+    long empty = ~bitboard.occupied();
+    long targets = 0L;
+    int oneForward = square + (white ? 8 : -8);
+    if (oneForward >= 0 && oneForward < 64 && (empty & (1L << oneForward)) != 0) {
+      targets |= 1L << oneForward;
+      int twoForward = square + (white ? 16 : -16);
+      if (Bitboard.row(square) == (white ? 2 : 7) && (empty & (1L << twoForward)) != 0) {
+        targets |= 1L << twoForward;
+      }
+    }
+    return targets | (Attacks.pawn(us, square) & bitboard.team(ChessGame.other(us)));
+  }
+
+  /**
+   * @return The type of the given team's piece on a square that is known to hold one
+   */
+  private static ChessPiece.PieceType typeAt(
+      Bitboard bitboard, ChessGame.TeamColor us, int square) {
+    long bit = 1L << square;
+    for (var type : PIECE_TYPES) {
+      if ((bitboard.pieces(us, type) & bit) != 0) return type;
+    }
+    throw new IllegalStateException("No piece on square " + square);
+  }
+}
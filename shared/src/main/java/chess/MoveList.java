@@ -0,0 +1,90 @@
+package chess;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * A growable list of packed moves (see {@link Move}) backed by an {@code int[]}. Move generators
+ * append to a list instead of allocating a collection, and a list can be cleared and reused for
+ * every position so that generating moves allocates nothing once the list has grown large enough.
+ */
+public final class MoveList {
+  // No chess position has more than 218 legal moves.
+  private static final int DEFAULT_CAPACITY = 256;
+
+  private int[] moves;
+  private int size;
+
+  public MoveList() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  public MoveList(int capacity) {
+    moves = new int[capacity];
+    size = 0;
+  }
+
+  /**
+   * @return The number of moves in the list
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * @return Whether the list holds no moves
+   */
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  /**
+   * @return The packed move at the given index
+   */
+  public int get(int index) {
+    if (index >= size) throw new IndexOutOfBoundsException(index);
+    return moves[index];
+  }
+
+  /**
+   * Appends a packed move to the list, growing it if needed
+   *
+   * @param move the packed move to add
+   */
+  public void add(int move) {
+    if (size == moves.length) moves = Arrays.copyOf(moves, Math.max(8, moves.length * 2));
+    moves[size++] = move;
+  }
+
+  /** Removes every move from the list, keeping its capacity for reuse. */
+  public void clear() {
+    size = 0;
+  }
+
+  /**
+   * Determines if the list holds a move with the same squares and promotion, ignoring flags
+   *
+   * @param move the packed move to look for
+   * @return True if an equivalent move is in the list
+   */
+  public boolean contains(int move) {
+    int target = Move.withoutFlags(move);
+    for (int i = 0; i < size; i++) {
+      if (Move.withoutFlags(moves[i]) == target) return true;
+    }
+    return false;
+  }
+
+  /**
+   * Unpacks every move in the list into a collection of {@link ChessMove}s
+   *
+   * @param collection the collection to add the moves to
+   * @return The given collection
+   */
+  public <C extends Collection<ChessMove>> C toChessMoves(C collection) {
+    for (int i = 0; i < size; i++) {
+      collection.add(Move.toChessMove(moves[i]));
+    }
+    return collection;
+  }
+}
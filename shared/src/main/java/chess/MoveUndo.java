@@ -0,0 +1,52 @@
+package chess;
+
+/**
+ * Everything needed to take back a move made with {@link ChessGame#makeMoveUnchecked}: the move
+ * itself, the piece that moved (before any promotion), the piece it captured, and whose turn it
+ * was.
+ */
+public final class MoveUndo {
+  private final ChessMove move;
+  private final ChessPiece movedPiece;
+  private final ChessPiece capturedPiece;
+  private final ChessGame.TeamColor previousTurn;
+
+  MoveUndo(
+      ChessMove move,
+      ChessPiece movedPiece,
+      ChessPiece capturedPiece,
+      ChessGame.TeamColor previousTurn) {
+    this.move = move;
+    this.movedPiece = movedPiece;
+    this.capturedPiece = capturedPiece;
+    this.previousTurn = previousTurn;
+  }
+
+  /**
+   * @return The move that was made
+   */
+  public ChessMove getMove() {
+    return move;
+  }
+
+  /**
+   * @return The piece that moved, as it was before any promotion
+   */
+  public ChessPiece getMovedPiece() {
+    return movedPiece;
+  }
+
+  /**
+   * @return The piece that was captured, or null if the move was not a capture
+   */
+  public ChessPiece getCapturedPiece() {
+    return capturedPiece;
+  }
+
+  /**
+   * @return Whose turn it was before the move was made
+   */
+  public ChessGame.TeamColor getPreviousTurn() {
+    return previousTurn;
+  }
+}
@@ -0,0 +1,200 @@
+package chess;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Counts the leaf nodes of the legal move tree to a fixed depth ("perft"). Comparing the counts
+ * against known values is the standard way to check a move generator, and timing them is the
+ * standard way to benchmark one.
+ *
+ * <p>Moves are generated into a reusable {@link MoveList} per ply and tried out with {@link
+ * ChessGame#makeMoveUnchecked}/{@link ChessGame#unmakeMove}, so the count exercises the same code
+ * that validates real moves. At the last ply the moves are counted rather than made ("bulk
+ * counting").
+ *
+ * <p>Note: this ruleset has no castling or en passant, so counts differ from published perft
+ * results for positions where either is possible.
+ *
+ * @see <a href="https://www.chessprogramming.org/Perft">Perft</a>
+ */
+public final class Perft {
+  /** Positions with known counts, as FEN records (see {@link Fen}). */
+  public static final List<String> POSITIONS =
+      List.of(
+          "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w",
+          "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w",
+          "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w",
+          "r3k2r/Pppp1ppp/1b3nbN/nP6/BBP1P3/q4N2/Pp1P2PP/R2Q1RK1 w",
+          "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w",
+          "4k3/8/8/8/8/8/8/4K2R w",
+          "8/P7/8/8/8/8/p7/k6K b");
+
+  private Perft() {}
+
+  /**
+   * Counts the leaf nodes of the move tree
+   *
+   * @param game the position to count from, which is left as it was
+   * @param depth how many plies to search
+   * @return The number of positions reachable in exactly that many moves
+   */
+  public static long perft(ChessGame game, int depth) {
+    if (depth == 0) return 1;
+    var lists = new MoveList[depth];
+    for (int i = 0; i < depth; i++) lists[i] = new MoveList();
+    return perft(game, depth, lists);
+  }
+
+  /**
+   * Counts the leaf nodes below each legal move, which narrows down where two move generators
+   * disagree
+   *
+   * @param game the position to count from, which is left as it was
+   * @param depth how many plies to search, including the first move
+   * @return The number of leaf nodes below each legal move, in generation order
+   */
+  public static Map<ChessMove, Long> divide(ChessGame game, int depth) {
+    var counts = new LinkedHashMap<ChessMove, Long>();
+    var moves = new MoveList();
+    MoveGenerator.generateLegalMoves(game.getBoard(), game.getTeamTurn(), moves);
+    for (int i = 0; i < moves.size(); i++) {
+      var move = Move.toChessMove(moves.get(i));
+      var undo = game.makeMoveUnchecked(move);
+      counts.put(move, perft(game, depth - 1));
+      game.unmakeMove(undo);
+    }
+    return counts;
+  }
+
+  /**
+   * Counts the leaf nodes of the move tree, searching the subtree below each legal move as a
+   * separate task
+   *
+   * @param game the position to count from, which is not modified
+   * @param depth how many plies to search
+   * @param pool the pool to run the subtrees on
+   * @return The number of positions reachable in exactly that many moves
+   */
+  public static long perftParallel(ChessGame game, int depth, ForkJoinPool pool) {
+    if (depth <= 1) return perft(game, depth);
+    var moves = new MoveList();
+    MoveGenerator.generateLegalMoves(game.getBoard(), game.getTeamTurn(), moves);
+    var tasks = new ArrayList<Subtree>(moves.size());
+    for (int i = 0; i < moves.size(); i++) {
+      tasks.add(new Subtree(game, Move.toChessMove(moves.get(i)), depth - 1));
+    }
+    return pool.invoke(
+        new RecursiveTask<Long>() {
+          @Override
+          protected Long compute() {
+            long nodes = 0;
+            for (var task : invokeAll(tasks)) nodes += task.join();
+            return nodes;
+          }
+        });
+  }
+
+  /**
+   * Counts the leaf nodes with one move list per remaining ply.
+   *
+   * @param lists the move list for each ply, indexed by remaining depth - 1
+   */
+  private static long perft(ChessGame game, int depth, MoveList[] lists) {
+    var moves = lists[depth - 1];
+    moves.clear();
+    MoveGenerator.generateLegalMoves(game.getBoard(), game.getTeamTurn(), moves);
+    if (depth == 1) return moves.size();
+    long nodes = 0;
+    for (int i = 0; i < moves.size(); i++) {
+      var undo = game.makeMoveUnchecked(Move.toChessMove(moves.get(i)));
+      nodes += perft(game, depth - 1, lists);
+      game.unmakeMove(undo);
+    }
+    return nodes;
+  }
+
+  /** Counts the leaf nodes below one move, on a copy of the game so tasks share no state. */
+  private static final class Subtree extends RecursiveTask<Long> {
+    private final ChessGame game;
+    private final int depth;
+
+    Subtree(ChessGame game, ChessMove move, int depth) {
+      this.game = new ChessGame(game.getBoard(), game.getTeamTurn());
+      this.game.makeMoveUnchecked(move);
+      this.depth = depth;
+    }
+
+    @Override
+    protected Long compute() {
+      return perft(game, depth);
+    }
+  }
+
+  /**
+   * Runs perft and prints the node counts and speed.
+   *
+   * <p>Usage: {@code Perft <depth> [--divide] [--parallel] [fen ...]}. Without any FEN records, the
+   * positions in {@link #POSITIONS} are searched. With {@code --divide}, the count below each legal
+   * move is printed too. With {@code --parallel}, the subtrees are searched on the common
+   * ForkJoinPool.
+   */
+  public static void main(String[] args) {
+    if (args.length == 0) {
+      System.out.println("Usage: Perft <depth> [--divide] [--parallel] [fen ...]");
+      return;
+    }
+    int depth = Integer.parseInt(args[0]);
+    var divide = false;
+    var parallel = false;
+    var fens = new ArrayList<String>();
+    for (int i = 1; i < args.length; i++) {
+      switch (args[i]) {
+        case "--divide" -> divide = true;
+        case "--parallel" -> parallel = true;
+        default -> fens.add(args[i]);
+      }
+    }
+    if (fens.isEmpty()) fens.addAll(POSITIONS);
+
+    long totalNodes = 0;
+    long totalNanos = 0;
+    for (var fen : fens) {
+      var game = ChessGame.fromFen(fen);
+      long start = System.nanoTime();
+      long nodes;
+      if (divide) {
+        nodes = 0;
+        for (var entry : divide(game, depth).entrySet()) {
+          System.out.println(String.format("  %s: %d", entry.getKey(), entry.getValue()));
+          nodes += entry.getValue();
+        }
+      } else if (parallel) {
+        nodes = perftParallel(game, depth, ForkJoinPool.commonPool());
+      } else {
+        nodes = perft(game, depth);
+      }
+      long nanos = System.nanoTime() - start;
+      System.out.println(
+          String.format(
+              "%s depth %d: %d nodes in %d ms (%s)",
+              fen, depth, nodes, nanos / 1_000_000, nodesPerSecond(nodes, nanos)));
+      totalNodes += nodes;
+      totalNanos += nanos;
+    }
+    if (fens.size() > 1) {
+      System.out.println(
+          String.format(
+              "Total: %d nodes in %d ms (%s)",
+              totalNodes, totalNanos / 1_000_000, nodesPerSecond(totalNodes, totalNanos)));
+    }
+  }
+
+  private static String nodesPerSecond(long nodes, long nanos) {
+    return String.format("%.0f nodes/s", nodes * 1e9 / Math.max(nanos, 1));
+  }
+}
@@ -0,0 +1,46 @@
+package chess;
+
+import java.util.SplittableRandom;
+
+/**
+ * Random keys for Zobrist hashing. A position's key is the XOR of the key of every piece on its
+ * square (plus a key for the side to move), so adding, removing or moving a piece updates the key
+ * with one or two XORs instead of rescanning the board.
+ *
+ * <p>The keys come from a fixed seed, so the same position has the same key in every run and on
+ * every machine, and keys can be stored and compared later.
+ *
+ * @see <a href="https://www.chessprogramming.org/Zobrist_Hashing">Zobrist Hashing</a>
+ */
+public final class Zobrist {
+  private static final long SEED = 0x5eed_c4e5_5b0a_4d1fL;
+
+  private static final long[][] PIECE_SQUARE = new long[12][64];
+  private static final long BLACK_TO_MOVE;
+
+  static {
+    var random = new SplittableRandom(SEED);
+    for (var keys : PIECE_SQUARE) {
+      for (int square = 0; square < 64; square++) keys[square] = random.nextLong();
+    }
+    BLACK_TO_MOVE = random.nextLong();
+  }
+
+  private Zobrist() {}
+
+  /**
+   * @param index the index of the piece set (see {@link Bitboard#index})
+   * @param square the square the piece is on
+   * @return The key of a piece standing on a square
+   */
+  public static long piece(int index, int square) {
+    return PIECE_SQUARE[index][square];
+  }
+
+  /**
+   * @return The key to mix in when it is the given team's turn
+   */
+  public static long sideToMove(ChessGame.TeamColor team) {
+    return team == ChessGame.TeamColor.BLACK ? BLACK_TO_MOVE : 0L;
+  }
+}
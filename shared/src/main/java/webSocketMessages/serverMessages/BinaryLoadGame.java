@@ -0,0 +1,61 @@
+package webSocketMessages.serverMessages;
+
+import chess.GameCodec;
+import java.nio.ByteBuffer;
+import model.GameData;
+
+/**
+ * The binary WebSocket frame form of a {@link LoadGame} message, sent to clients that connect with
+ * {@code ?format=binary}. It is a type byte ({@link ServerMessage.ServerMessageType#LOAD_GAME}),
+ * the game ID and the game's ply (see {@link chess.ChessGame#getPly}) as big-endian ints, and the
+ * game encoded with {@link GameCodec}: {@value #SIZE} bytes in all, instead of several kilobytes of
+ * JSON.
+ *
+ * <p>The frame carries only the game, not the players or game name, which the client already has
+ * from joining the game.
+ */
+public final class BinaryLoadGame {
+  /** The number of bytes in a frame. */
+  public static final int SIZE = 1 + 4 + 4 + GameCodec.SIZE;
+
+  /** The query parameter value a client connects with to receive binary frames. */
+  public static final String FORMAT = "binary";
+
+  private BinaryLoadGame() {}
+
+  /**
+   * Encodes a game into a frame
+   *
+   * @param gameData the game to send
+   * @return The frame, ready to be sent
+   */
+  public static ByteBuffer encode(GameData gameData) {
+    var bytes = new byte[SIZE];
+    var buffer = ByteBuffer.wrap(bytes);
+    buffer.put((byte) ServerMessage.ServerMessageType.LOAD_GAME.ordinal());
+    buffer.putInt(gameData.getGameId());
+    buffer.putInt(gameData.getGame().getPly());
+    GameCodec.encode(gameData.getGame(), bytes, buffer.position());
+    return buffer.rewind();
+  }
+
+  /**
+   * Decodes a frame
+   *
+   * @param frame the received frame
+   * @return The message, whose game data holds only the game ID and the game
+   * @throws IllegalArgumentException if the frame is not a LoadGame frame
+   */
+  public static LoadGame decode(ByteBuffer frame) {
+    if (frame.remaining() != SIZE
+        || frame.get(frame.position()) != ServerMessage.ServerMessageType.LOAD_GAME.ordinal()) {
+      throw new IllegalArgumentException("Not a binary LoadGame frame");
+    }
+    var bytes = new byte[SIZE];
+    frame.duplicate().get(bytes);
+    var gameID = ByteBuffer.wrap(bytes).getInt(1);
+    var game = GameCodec.decode(bytes, 9);
+    game.setPly(ByteBuffer.wrap(bytes).getInt(5));
+    return new LoadGame(new GameData(gameID, null, null, null, game));
+  }
+}
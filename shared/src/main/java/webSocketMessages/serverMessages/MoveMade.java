@@ -0,0 +1,50 @@
+package webSocketMessages.serverMessages;
+
+import chess.ChessGame;
+import chess.ChessMove;
+
+/**
+ * Tells a client that a move was made, instead of sending the whole game again in a {@link
+ * LoadGame}. Only clients that connect with {@code ?updates=delta} are sent these.
+ *
+ * <p>The sequence number is the game's ply once the move has been made (see {@link
+ * ChessGame#getPly}), so a client can apply the move if its game is at the ply just before, and
+ * should otherwise ask for the whole game again with a {@link
+ * webSocketMessages.userCommands.Refresh} command.
+ */
+public class MoveMade extends ServerMessage {
+  /** The query parameter a client connects with to receive moves instead of whole games. */
+  public static final String PARAMETER = "updates";
+
+  /** The value of {@link #PARAMETER} that asks for moves. */
+  public static final String DELTA = "delta";
+
+  private final int gameID;
+  private final ChessMove move;
+  private final int sequence;
+  private final ChessGame.GameStatus status;
+
+  public MoveMade(int gameID, ChessMove move, int sequence, ChessGame.GameStatus status) {
+    super(ServerMessageType.MOVE_MADE);
+    this.gameID = gameID;
+    this.move = move;
+    this.sequence = sequence;
+    this.status = status;
+  }
+
+  public int getGameId() {
+    return gameID;
+  }
+
+  public ChessMove getMove() {
+    return move;
+  }
+
+  public int getSequence() {
+    return sequence;
+  }
+
+  public ChessGame.GameStatus getStatus() {
+    return status;
+  }
+}
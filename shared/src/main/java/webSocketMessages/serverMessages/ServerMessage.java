@@ -13,7 +13,8 @@ public class ServerMessage {
   public enum ServerMessageType {
     LOAD_GAME,
     ERROR,
-    NOTIFICATION
+    NOTIFICATION,
+    MOVE_MADE
   }
 
   public ServerMessage(ServerMessageType type) {
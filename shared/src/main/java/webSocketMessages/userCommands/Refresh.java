@@ -0,0 +1,15 @@
+package webSocketMessages.userCommands;
+
+public class Refresh extends UserGameCommand {
+  private final int gameID;
+
+  public Refresh(String authToken, int gameID) {
+    super(authToken);
+    this.gameID = gameID;
+    this.commandType = CommandType.REFRESH;
+  }
+
+  public int getGameId() {
+    return gameID;
+  }
+}
@@ -14,7 +14,8 @@ public class UserGameCommand {
     JOIN_OBSERVER,
     MAKE_MOVE,
     LEAVE,
-    RESIGN
+    RESIGN,
+    REFRESH
   }
 
   protected CommandType commandType;
@@ -0,0 +1,39 @@
+package chessTests;
+
+import chess.*;
+import chess.ChessGame.TeamColor;
+import chess.ChessPiece.PieceType;
+import org.junit.jupiter.api.*;
+
+public class ChessPieceTests {
+  @Test
+  @SuppressWarnings("deprecation")
+  public void setPieceTypeOnSharedPiece() {
+    var board = new ChessBoard();
+    board.resetBoard();
+    var position = ChessPosition.of(2, 1);
+    Assertions.assertDoesNotThrow(() -> board.getPiece(position).setPieceType(PieceType.QUEEN));
+    Assertions.assertEquals(PieceType.PAWN, board.getPiece(position).getPieceType());
+    Assertions.assertEquals(
+        PieceType.PAWN, ChessPiece.of(TeamColor.WHITE, PieceType.PAWN).getPieceType());
+  }
+
+  @Test
+  @SuppressWarnings("deprecation")
+  public void setPieceTypeOnOwnPiece() {
+    var piece = new ChessPiece(TeamColor.WHITE, PieceType.PAWN);
+    piece.setPieceType(PieceType.QUEEN);
+    Assertions.assertEquals(PieceType.QUEEN, piece.getPieceType());
+  }
+
+  @Test
+  public void promoteWithPieceType() {
+    var board = new ChessBoard();
+    board.resetBoard();
+    var position = ChessPosition.of(2, 1);
+    board.addPiece(position, board.getPiece(position).withPieceType(PieceType.QUEEN));
+    Assertions.assertSame(
+        ChessPiece.of(TeamColor.WHITE, PieceType.QUEEN), board.getPiece(position));
+    Assertions.assertEquals(board, ChessBoard.fromFen(board.toFen()));
+  }
+}
@@ -0,0 +1,98 @@
+package chessTests;
+
+import chess.*;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+public class FenTests {
+  // Keeps what is allocated reachable, so that it is not optimized away.
+  private static Object sink;
+
+  // Measures how many bytes the current thread allocates per run of a task.
+  static long allocatedBytes(Supplier<Object> task) {
+    var threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    var thread = Thread.currentThread().getId();
+    for (int i = 0; i < 10_000; i++) sink = task.get();
+    var runs = 10_000;
+    var before = threads.getThreadAllocatedBytes(thread);
+    for (int i = 0; i < runs; i++) sink = task.get();
+    return (threads.getThreadAllocatedBytes(thread) - before) / runs;
+  }
+
+  @Test
+  public void allocatesOneBoard() {
+    // A game holds little beyond its board, so copying the board would
+    // double this.
+    var board = allocatedBytes(ChessBoard::new);
+    var parsed = allocatedBytes(() -> Fen.parse(Fen.START));
+    Assertions.assertTrue(
+        parsed < board * 3 / 2, "Parsing took " + parsed + " bytes, a board takes " + board);
+  }
+
+  @Test
+  public void startPosition() {
+    Assertions.assertEquals(new ChessGame(), ChessGame.fromFen(Fen.START));
+    Assertions.assertEquals(Fen.START, new ChessGame().toFen());
+  }
+
+  @Test
+  public void roundTrip() {
+    for (var fen : Perft.POSITIONS) {
+      var game = ChessGame.fromFen(fen);
+      Assertions.assertEquals(game, ChessGame.fromFen(game.toFen()));
+      Assertions.assertTrue(game.toFen().startsWith(fen));
+    }
+  }
+
+  @Test
+  public void boardOnly() {
+    var fen = "8/P7/8/8/8/8/p7/k6K";
+    var board = ChessBoard.fromFen(fen + " b - - 0 1");
+    Assertions.assertEquals(fen, board.toFen());
+    Assertions.assertEquals(
+        ChessPiece.of(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN),
+        board.getPiece(ChessPosition.of(7, 1)));
+  }
+
+  @Test
+  public void bytes() {
+    var game = ChessGame.fromFen(Perft.POSITIONS.get(6));
+    var buffer = new byte[4 + Fen.MAX_LENGTH];
+    int length = Fen.write(game, buffer, 4);
+    Assertions.assertEquals(game.toFen(), new String(buffer, 4, length, StandardCharsets.US_ASCII));
+    var parsed = Fen.parse(buffer, 4, length);
+    Assertions.assertEquals(game, parsed);
+    Assertions.assertEquals(ChessGame.TeamColor.BLACK, parsed.getTeamTurn());
+  }
+
+  @Test
+  public void fullMoveNumber() {
+    var game = ChessGame.fromFen("8/P7/8/8/8/8/p7/k6K b - - 0 12");
+    Assertions.assertEquals(23, game.getPly());
+    Assertions.assertEquals("8/P7/8/8/8/8/p7/k6K b - - 0 12", game.toFen());
+    var buffer = new byte[Fen.MAX_LENGTH];
+    int length = Fen.write(game, buffer, 0);
+    Assertions.assertEquals(game.toFen(), new String(buffer, 0, length, StandardCharsets.US_ASCII));
+  }
+
+  @ParameterizedTest
+  @ValueSource(
+      strings = {
+        "",
+        "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP w",
+        "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR/8 w",
+        "rnbqkbnr/ppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w",
+        "rnbqkbnr/pppppppp/9/8/8/8/PPPPPPPP/RNBQKBNR w",
+        "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNX w",
+        "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR x",
+        "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w - - 0 1 extra",
+        "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w - - 0 0",
+      })
+  public void invalid(String fen) {
+    Assertions.assertThrows(IllegalArgumentException.class, () -> ChessGame.fromFen(fen));
+  }
+}
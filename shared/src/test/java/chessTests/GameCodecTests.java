@@ -0,0 +1,62 @@
+package chessTests;
+
+import chess.*;
+import model.GameData;
+import org.junit.jupiter.api.*;
+import webSocketMessages.serverMessages.BinaryLoadGame;
+
+public class GameCodecTests {
+  @Test
+  public void decodeAllocatesOneBoard() {
+    var bytes = GameCodec.encode(new ChessGame());
+    var board = FenTests.allocatedBytes(ChessBoard::new);
+    var decoded = FenTests.allocatedBytes(() -> GameCodec.decode(bytes));
+    Assertions.assertTrue(
+        decoded < board * 3 / 2, "Decoding took " + decoded + " bytes, a board takes " + board);
+  }
+
+  @Test
+  public void roundTrip() {
+    for (var fen : Perft.POSITIONS) {
+      var game = ChessGame.fromFen(fen);
+      var bytes = GameCodec.encode(game);
+      Assertions.assertEquals(GameCodec.SIZE, bytes.length);
+      var decoded = GameCodec.decode(bytes);
+      Assertions.assertEquals(game, decoded);
+      Assertions.assertEquals(game.getTeamTurn(), decoded.getTeamTurn());
+      Assertions.assertNull(decoded.getResigned());
+    }
+  }
+
+  @Test
+  public void resigned() {
+    var game = ChessGame.fromFen(Perft.POSITIONS.get(6));
+    game.setResigned(ChessGame.TeamColor.BLACK);
+    var bytes = new byte[3 + GameCodec.SIZE];
+    GameCodec.encode(game, bytes, 3);
+    var decoded = GameCodec.decode(bytes, 3);
+    Assertions.assertEquals(game, decoded);
+    Assertions.assertEquals(ChessGame.TeamColor.BLACK, decoded.getTeamTurn());
+    Assertions.assertEquals(ChessGame.TeamColor.BLACK, decoded.getResigned());
+  }
+
+  @Test
+  public void invalid() {
+    Assertions.assertThrows(
+        IllegalArgumentException.class, () -> GameCodec.decode(new byte[GameCodec.SIZE - 1]));
+    var bytes = GameCodec.encode(new ChessGame());
+    bytes[20] = (byte) 0xff;
+    Assertions.assertThrows(IllegalArgumentException.class, () -> GameCodec.decode(bytes));
+  }
+
+  @Test
+  public void binaryLoadGameKeepsPly() {
+    var game = ChessGame.fromFen("rnbqkbnr/pppppppp/8/8/4P3/8/PPPP1PPP/RNBQKBNR b - - 0 7");
+    var frame = BinaryLoadGame.encode(new GameData(12, "white", "black", "name", game));
+    Assertions.assertEquals(BinaryLoadGame.SIZE, frame.remaining());
+    var decoded = BinaryLoadGame.decode(frame).getGameData();
+    Assertions.assertEquals(12, decoded.getGameId());
+    Assertions.assertEquals(game, decoded.getGame());
+    Assertions.assertEquals(13, decoded.getGame().getPly());
+  }
+}
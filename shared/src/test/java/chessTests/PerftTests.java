@@ -0,0 +1,46 @@
+package chessTests;
+
+import chess.ChessGame;
+import chess.Perft;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+// The expected counts are for this ruleset, which has no castling or en passant.
+public class PerftTests {
+  @ParameterizedTest
+  @CsvSource({"1, 20", "2, 400", "3, 8902", "4, 197281"})
+  public void startPosition(int depth, long nodes) {
+    Assertions.assertEquals(nodes, Perft.perft(new ChessGame(), depth));
+  }
+
+  @ParameterizedTest
+  @CsvSource({"1, 86585", "2, 2810", "3, 9217", "4, 59922", "5, 1149", "6, 131"})
+  public void positionsToDepthThree(int position, long nodes) {
+    var game = ChessGame.fromFen(Perft.POSITIONS.get(position));
+    Assertions.assertEquals(nodes, Perft.perft(game, 3));
+  }
+
+  @Test
+  public void gameIsUnchanged() {
+    var game = ChessGame.fromFen(Perft.POSITIONS.get(3));
+    var copy = new ChessGame(game.getBoard(), game.getTeamTurn());
+    Perft.perft(game, 3);
+    Assertions.assertEquals(copy, game);
+    Assertions.assertEquals(copy.zobristKey(), game.zobristKey());
+  }
+
+  @Test
+  public void divideSumsToPerft() {
+    var game = ChessGame.fromFen(Perft.POSITIONS.get(1));
+    long sum = Perft.divide(game, 3).values().stream().mapToLong(Long::longValue).sum();
+    Assertions.assertEquals(86585, sum);
+  }
+
+  @Test
+  public void parallelMatchesSerial() {
+    var game = ChessGame.fromFen(Perft.POSITIONS.get(4));
+    Assertions.assertEquals(2018609, Perft.perftParallel(game, 4, ForkJoinPool.commonPool()));
+  }
+}
@@ -0,0 +1,88 @@
+package chessTests;
+
+import chess.*;
+import java.util.ArrayList;
+import org.junit.jupiter.api.*;
+
+public class ZobristTests {
+  private int captures;
+  private int promotions;
+
+  // Computes a game's key from its pieces, without using the key the board
+  // keeps up to date.
+  private static long scratchKey(ChessGame game) {
+    long key = Zobrist.sideToMove(game.getTeamTurn());
+    for (int row = 1; row <= 8; row++) {
+      for (int col = 1; col <= 8; col++) {
+        var piece = game.getBoard().getPiece(ChessPosition.of(row, col));
+        if (piece == null) continue;
+        var index = Bitboard.index(piece.getTeamColor(), piece.getPieceType());
+        key ^= Zobrist.piece(index, Bitboard.square(row, col));
+      }
+    }
+    return key;
+  }
+
+  // Makes and takes back every move to the given depth, checking the key
+  // after each.
+  private void walk(ChessGame game, int depth) {
+    if (depth == 0) return;
+    var key = game.zobristKey();
+    var before = ChessGame.fromFen(game.toFen());
+    for (var move : new ArrayList<>(game.legalMoves())) {
+      if (game.getBoard().getPiece(move.getEndPosition()) != null) captures++;
+      if (move.getPromotionPiece() != null) promotions++;
+
+      var undo = game.makeMoveUnchecked(move);
+      Assertions.assertEquals(scratchKey(game), game.zobristKey(), "Key after " + move);
+      var fresh = ChessGame.fromFen(game.toFen());
+      Assertions.assertEquals(fresh, game);
+      Assertions.assertEquals(fresh.hashCode(), game.hashCode());
+      walk(game, depth - 1);
+
+      game.unmakeMove(undo);
+      Assertions.assertEquals(key, game.zobristKey(), "Key after taking back " + move);
+      Assertions.assertEquals(before, game);
+      Assertions.assertEquals(before.hashCode(), game.hashCode());
+    }
+  }
+
+  @Test
+  public void incrementalKeyMatchesScratchKey() {
+    for (var fen : Perft.POSITIONS) {
+      var game = ChessGame.fromFen(fen);
+      Assertions.assertEquals(scratchKey(game), game.zobristKey(), fen);
+      walk(game, 2);
+    }
+    Assertions.assertTrue(captures > 0, "The walk should include captures");
+    Assertions.assertTrue(promotions > 0, "The walk should include promotions");
+  }
+
+  @Test
+  public void checkedMovesKeepKey() throws Exception {
+    var game = new ChessGame();
+    var start = game.zobristKey();
+    for (var i = 0; i < 20; i++) {
+      var move = game.legalMoves().iterator().next();
+      game.makeMove(move);
+      Assertions.assertEquals(scratchKey(game), game.zobristKey());
+    }
+    Assertions.assertNotEquals(start, game.zobristKey());
+  }
+
+  @Test
+  public void equalPositionsHaveEqualKeys() {
+    var game = new ChessGame();
+    var knightOut = new ChessMove(ChessPosition.of(1, 2), ChessPosition.of(3, 3), null);
+    var knightBack = new ChessMove(ChessPosition.of(3, 3), ChessPosition.of(1, 2), null);
+    var blackOut = new ChessMove(ChessPosition.of(8, 2), ChessPosition.of(6, 3), null);
+    var blackBack = new ChessMove(ChessPosition.of(6, 3), ChessPosition.of(8, 2), null);
+    game.makeMoveUnchecked(knightOut);
+    game.makeMoveUnchecked(blackOut);
+    game.makeMoveUnchecked(knightBack);
+    game.makeMoveUnchecked(blackBack);
+    Assertions.assertEquals(new ChessGame(), game);
+    Assertions.assertEquals(new ChessGame().zobristKey(), game.zobristKey());
+    Assertions.assertEquals(new ChessGame().hashCode(), game.hashCode());
+  }
+}